@@ -0,0 +1,45 @@
+package com.paymend.commons.cache;
+
+import java.util.Locale;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * The {@code Cache-Control} directives relevant to a private client cache.
+ *
+ * @param maxAgeSeconds {@code max-age} in seconds, or {@code -1} if absent
+ */
+record CacheDirectives(boolean noStore, boolean noCache, long maxAgeSeconds) {
+
+    private static final CacheDirectives NONE = new CacheDirectives(false, false, -1);
+
+    static CacheDirectives parse(String cacheControl) {
+        if (!StringUtils.hasText(cacheControl)) {
+            return NONE;
+        }
+
+        boolean noStore = false;
+        boolean noCache = false;
+        long maxAge = -1;
+        for (String directive : cacheControl.split(",")) {
+            String token = directive.trim().toLowerCase(Locale.ROOT);
+            if (token.equals("no-store")) {
+                noStore = true;
+            } else if (token.equals("no-cache") || token.startsWith("no-cache=")) {
+                noCache = true;
+            } else if (token.startsWith("max-age=")) {
+                maxAge = parseSeconds(token.substring("max-age=".length()));
+            }
+        }
+        return new CacheDirectives(noStore, noCache, maxAge);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            // An invalid max-age makes the response stale (RFC 9111, 5.2.2.1)
+            return 0;
+        }
+    }
+}
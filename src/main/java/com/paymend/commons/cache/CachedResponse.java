@@ -0,0 +1,163 @@
+package com.paymend.commons.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StringUtils;
+
+/**
+ * A stored GET response together with its freshness information (RFC 9111, private cache semantics).
+ */
+public final class CachedResponse {
+
+    private final HttpStatusCode statusCode;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final List<String> varyHeaderNames;
+    private final List<String> varyHeaderValues;
+    private final long freshUntilMillis;
+
+    private CachedResponse(HttpStatusCode statusCode, String statusText, HttpHeaders headers, byte[] body,
+            List<String> varyHeaderNames, List<String> varyHeaderValues, long freshUntilMillis) {
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+        this.headers = headers;
+        this.body = body;
+        this.varyHeaderNames = varyHeaderNames;
+        this.varyHeaderValues = varyHeaderValues;
+        this.freshUntilMillis = freshUntilMillis;
+    }
+
+    /**
+     * Creates an entry for a response, or returns {@code null} if the response must not be stored.
+     */
+    public static CachedResponse of(HttpRequest request, HttpStatusCode statusCode, String statusText,
+            HttpHeaders responseHeaders, byte[] body, long nowMillis) {
+
+        CacheDirectives directives = CacheDirectives.parse(responseHeaders.getCacheControl());
+        if (directives.noStore()) {
+            return null;
+        }
+        List<String> vary = responseHeaders.getVary();
+        if (vary.contains("*")) {
+            return null;
+        }
+
+        long lifetime = directives.noCache() ? 0 : freshnessLifetimeMillis(directives, responseHeaders);
+        boolean hasValidators = responseHeaders.getETag() != null || responseHeaders.getLastModified() != -1;
+        if (lifetime <= 0 && !hasValidators) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach(headers::addAll);
+        List<String> varyNames = vary.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+
+        return new CachedResponse(statusCode, statusText, HttpHeaders.readOnlyHttpHeaders(headers), body,
+                varyNames, varyValues(request, varyNames), nowMillis + Math.max(0, lifetime));
+    }
+
+    /**
+     * Returns a copy of this entry refreshed by a {@code 304 Not Modified} response.
+     */
+    public CachedResponse revalidated(HttpHeaders notModifiedHeaders, long nowMillis) {
+        HttpHeaders merged = new HttpHeaders();
+        headers.forEach(merged::addAll);
+        notModifiedHeaders.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                merged.put(name, values);
+            }
+        });
+
+        CacheDirectives directives = CacheDirectives.parse(merged.getCacheControl());
+        long lifetime = directives.noCache() ? 0 : freshnessLifetimeMillis(directives, merged);
+        return new CachedResponse(statusCode, statusText, HttpHeaders.readOnlyHttpHeaders(merged), body,
+                varyHeaderNames, varyHeaderValues, nowMillis + Math.max(0, lifetime));
+    }
+
+    public boolean isFresh(long nowMillis) {
+        return nowMillis < freshUntilMillis;
+    }
+
+    public boolean matchesVary(HttpRequest request) {
+        return varyHeaderNames.isEmpty() || varyHeaderValues.equals(varyValues(request, varyHeaderNames));
+    }
+
+    public String getETag() {
+        return headers.getETag();
+    }
+
+    public long getLastModified() {
+        return headers.getLastModified();
+    }
+
+    public int weight() {
+        return body.length + 512;
+    }
+
+    public ClientHttpResponse toClientHttpResponse() {
+        return new ClientHttpResponse() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public String getStatusText() {
+                return statusText;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static long freshnessLifetimeMillis(CacheDirectives directives, HttpHeaders headers) {
+        long age = parseAgeMillis(headers.getFirst(HttpHeaders.AGE));
+        if (directives.maxAgeSeconds() >= 0) {
+            return directives.maxAgeSeconds() * 1_000 - age;
+        }
+        long expires = headers.getExpires();
+        if (expires > 0) {
+            long date = headers.getDate();
+            return expires - (date > 0 ? date : System.currentTimeMillis()) - age;
+        }
+        return 0;
+    }
+
+    private static long parseAgeMillis(String age) {
+        if (!StringUtils.hasText(age)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(age.trim()) * 1_000;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static List<String> varyValues(HttpRequest request, List<String> names) {
+        return names.stream()
+                .map(name -> Objects.toString(request.getHeaders().get(name), ""))
+                .toList();
+    }
+}
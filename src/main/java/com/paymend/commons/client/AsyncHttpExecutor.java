@@ -0,0 +1,44 @@
+package com.paymend.commons.client;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationExecutors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Virtual-thread-per-task executor backing the asynchronous {@link RestTemplateService} methods.
+ * The caller's request-id and MDC are captured on submission and set on the task's thread while it runs.
+ */
+@Component
+@Slf4j
+public class AsyncHttpExecutor implements Executor, DisposableBean {
+
+    private final ExecutorService delegate;
+    private final RestTemplateConfigProperties.Async asyncConfig;
+
+    public AsyncHttpExecutor(RestTemplateConfigProperties properties) {
+        this.asyncConfig = properties.getAsync();
+        this.delegate = CorrelationExecutors.newVirtualThreadPerTaskExecutor(asyncConfig.getThreadNamePrefix());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(task);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        delegate.shutdown();
+        if (!delegate.awaitTermination(asyncConfig.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Async HTTP calls still running after {}, interrupting", asyncConfig.getShutdownTimeout());
+            delegate.shutdownNow();
+        }
+    }
+}
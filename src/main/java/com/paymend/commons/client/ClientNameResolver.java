@@ -0,0 +1,33 @@
+package com.paymend.commons.client;
+
+import java.net.URI;
+
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves the logical downstream client name of an outbound request.
+ * <p>
+ * Hosts are mapped with {@code paymend.http-client.client-names}, e.g.
+ * {@code paymend.http-client.client-names[api.paysight.com]=paysight}. Unmapped hosts are used as-is.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientNameResolver {
+
+    public static final String UNKNOWN_CLIENT = "unknown";
+
+    private final RestTemplateConfigProperties properties;
+
+    public String resolve(URI uri) {
+        String host = uri.getHost();
+        if (host == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return properties.getClientNames().getOrDefault(host, host);
+    }
+}
@@ -0,0 +1,193 @@
+package com.paymend.commons.client;
+
+import java.net.http.HttpClient;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Transport;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the underlying HTTP transport for every {@code RestTemplate} built by the library.
+ * <p>
+ * The transport is selected with {@code paymend.http-client.transport.mode}. Pooled and HTTP/2
+ * clients are created once and shared by all request factories handed out, so connections are
+ * reused across {@code RestTemplate} instances. The pool statistics are published as
+ * {@code httpcomponents.httpclient.pool.*} gauges, tagged with {@code service_name}, and via {@link #getPoolStats()}.
+ * </p>
+ * <p>
+ * The JDK {@code HttpClient} used in {@code HTTP2} mode has no pool limits, so a
+ * {@link StreamLimitingRequestFactory} caps exchanges in flight in total and per host, waiting at most
+ * {@code lease-timeout}. The JDK client offers no per-client idle timeout, so {@code max-idle-time},
+ * {@code keep-alive}, {@code time-to-live} and {@code validate-after-inactivity} do not apply to this mode;
+ * idle connections are closed after the JVM-wide {@code -Djdk.httpclient.keepalive.timeout} and
+ * {@code -Djdk.httpclient.keepalive.timeout.h2} flags, which default to 30 seconds.
+ * </p>
+ */
+@Component
+@Slf4j
+public class HttpTransportFactory implements MeterBinder, DisposableBean {
+
+    private static final String POOL_NAME = "paymend-http-client";
+
+    private final RestTemplateConfigProperties properties;
+    private final String serviceName;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient pooledClient;
+    private final HttpClient http2Client;
+    private final StreamLimitingRequestFactory http2RequestFactory;
+
+    public HttpTransportFactory(RestTemplateConfigProperties properties, PaymentMetricsProperties metricsProperties) {
+        this.properties = properties;
+        this.serviceName = metricsProperties.getServiceName();
+
+        Transport transport = properties.getTransport();
+        this.connectionManager = transport.getMode() == Transport.Mode.POOLED ? createConnectionManager() : null;
+        this.pooledClient = connectionManager != null ? createPooledClient(connectionManager) : null;
+        this.http2Client = transport.getMode() == Transport.Mode.HTTP2 ? createHttp2Client() : null;
+        this.http2RequestFactory = http2Client != null ? createHttp2RequestFactory(http2Client) : null;
+
+        log.info("HTTP client transport: {}", transport.getMode());
+    }
+
+    public ClientHttpRequestFactory createRequestFactory() {
+        return switch (properties.getTransport().getMode()) {
+            case POOLED -> new HttpComponentsClientHttpRequestFactory(pooledClient);
+            case HTTP2 -> http2RequestFactory;
+            case SIMPLE -> {
+                SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+                factory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+                factory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+                yield factory;
+            }
+        };
+    }
+
+    /**
+     * Returns the total statistics of the connection pool, or {@code null} in {@code SIMPLE} mode. In
+     * {@code HTTP2} mode leased counts exchanges in flight and the number of idle connections is not known.
+     */
+    public PoolStats getPoolStats() {
+        if (connectionManager != null) {
+            return connectionManager.getTotalStats();
+        }
+        if (http2RequestFactory != null) {
+            return new PoolStats(http2RequestFactory.getLeased(), http2RequestFactory.getPending(), 0,
+                    http2RequestFactory.getMaxTotal());
+        }
+        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (connectionManager != null) {
+            new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME,
+                    "service_name", serviceName).bindTo(registry);
+        }
+        if (http2RequestFactory != null) {
+            Gauge.builder("httpcomponents.httpclient.pool.total.max", http2RequestFactory,
+                            StreamLimitingRequestFactory::getMaxTotal)
+                    .description("Maximum exchanges in flight")
+                    .tag("service_name", serviceName)
+                    .tag("httpclient", POOL_NAME)
+                    .register(registry);
+            Gauge.builder("httpcomponents.httpclient.pool.total.connections", http2RequestFactory,
+                            StreamLimitingRequestFactory::getLeased)
+                    .description("Exchanges in flight")
+                    .tag("service_name", serviceName)
+                    .tag("httpclient", POOL_NAME)
+                    .tag("state", "leased")
+                    .register(registry);
+            Gauge.builder("httpcomponents.httpclient.pool.total.pending", http2RequestFactory,
+                            StreamLimitingRequestFactory::getPending)
+                    .description("Exchanges waiting for a free slot")
+                    .tag("service_name", serviceName)
+                    .tag("httpclient", POOL_NAME)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (pooledClient != null) {
+            pooledClient.close(CloseMode.GRACEFUL);
+        }
+        if (http2Client != null) {
+            http2Client.close();
+        }
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager() {
+        Transport transport = properties.getTransport();
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                .setTimeToLive(TimeValue.of(transport.getTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(transport.getValidateAfterInactivity()))
+                .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(transport.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(transport.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(connectionConfig)
+                .build();
+    }
+
+    private CloseableHttpClient createPooledClient(PoolingHttpClientConnectionManager manager) {
+        Transport transport = properties.getTransport();
+
+        // Keep-alive applies when the server does not send its own Keep-Alive timeout
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(transport.getLeaseTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(transport.getKeepAlive()))
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                // Retries are owned by RetryInterceptor and its budget
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(transport.getMaxIdleTime()))
+                .build();
+    }
+
+    private HttpClient createHttp2Client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+    }
+
+    private StreamLimitingRequestFactory createHttp2RequestFactory(HttpClient client) {
+        Transport transport = properties.getTransport();
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(client);
+        factory.setReadTimeout(properties.getReadTimeout());
+        return new StreamLimitingRequestFactory(factory, transport.getMaxConnectionsTotal(),
+                transport.getMaxConnectionsPerRoute(), transport.getLeaseTimeout());
+    }
+}
@@ -0,0 +1,144 @@
+package com.paymend.commons.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+/**
+ * Serializes request bodies straight to UTF-8 bytes.
+ * <p>
+ * {@link ObjectWriter}s are resolved once per request type and output buffers are taken from a
+ * bounded pool, so a body is encoded exactly once and the same bytes are used for logging and for
+ * the request. Buffers that grew beyond {@code maxPooledBufferSize} are dropped instead of pooled.
+ * </p>
+ */
+@Component
+public class JsonBodyWriter {
+
+    private final ObjectMapper objectMapper;
+    private final RestTemplateConfigProperties.Serialization serializationConfig;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final BlockingQueue<Buffer> pool;
+
+    public JsonBodyWriter(ObjectMapper objectMapper, RestTemplateConfigProperties properties) {
+        this.objectMapper = objectMapper;
+        this.serializationConfig = properties.getSerialization();
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, serializationConfig.getBufferPoolSize()));
+    }
+
+    /**
+     * Serializes the value into a pooled buffer. The returned body must be closed to return the buffer.
+     */
+    public JsonBody write(Object value) throws JsonProcessingException {
+        Buffer buffer = pool.poll();
+        if (buffer == null) {
+            buffer = new Buffer(serializationConfig.getInitialBufferSize());
+        }
+        try {
+            writerFor(value).writeValue(buffer, value);
+            return new JsonBody(buffer);
+        } catch (JsonProcessingException e) {
+            release(buffer);
+            throw e;
+        } catch (IOException e) {
+            release(buffer);
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
+
+    private ObjectWriter writerFor(Object value) {
+        if (value == null) {
+            return objectMapper.writer();
+        }
+        ObjectWriter writer = writers.get(value.getClass());
+        if (writer == null) {
+            writer = writers.computeIfAbsent(value.getClass(), objectMapper::writerFor);
+        }
+        return writer;
+    }
+
+    private void release(Buffer buffer) {
+        if (buffer.capacity() <= serializationConfig.getMaxPooledBufferSize()) {
+            buffer.reset();
+            pool.offer(buffer);
+        }
+    }
+
+    /**
+     * Serialized JSON held in a pooled buffer. {@link #toString()} decodes the bytes for logging only when called.
+     */
+    public final class JsonBody implements AutoCloseable {
+
+        private Buffer buffer;
+
+        private JsonBody(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public int length() {
+            return buffer.size();
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(buffer.array(), 0, buffer.size());
+        }
+
+        /**
+         * The pooled buffer's array, valid for {@code [0, length())} until this body is closed.
+         */
+        byte[] array() {
+            return buffer.array();
+        }
+
+        /**
+         * Copies the bytes out of the pooled buffer, for consumers that outlive this body.
+         */
+        public byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer.array(), 0, buffer.size(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            if (buffer != null) {
+                release(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Unsynchronized view of the internal array, so the bytes can be written without another copy.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int size) {
+            super(size);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.paymend.commons.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-flight for idempotent calls: concurrent identical requests share one in-flight call.
+ * <p>
+ * Requests are identical when method, URI, response type and the values of
+ * {@code paymend.http-client.single-flight.key-headers} match. The first caller executes the call;
+ * callers arriving while it is in flight wait for it and receive the same result or exception.
+ * Nothing is kept once the call completes. The deserialized body is shared between callers, so it
+ * must be treated as read-only.
+ * </p>
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final RestTemplateConfigProperties.SingleFlight singleFlightConfig;
+    private final Set<String> keyHeaders;
+    private final Map<CallKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(RestTemplateConfigProperties properties) {
+        this.singleFlightConfig = properties.getSingleFlight();
+        this.keyHeaders = singleFlightConfig.getKeyHeaders().stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public boolean isEnabled() {
+        return singleFlightConfig.isEnabled();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(HttpMethod method, String uri, Map<String, String> headers, Class<?> responseType,
+            Supplier<T> call) {
+
+        CallKey key = new CallKey(method, uri, keyHeaderValues(headers), responseType);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            log.debug("Joining in-flight {} {}", method, uri);
+            return (T) await(existing, uri);
+        }
+
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight, String uri) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for " + uri);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private List<String> keyHeaderValues(Map<String, String> headers) {
+        if (keyHeaders.isEmpty() || headers.isEmpty()) {
+            return List.of();
+        }
+        List<String> values = new ArrayList<>(keyHeaders.size());
+        headers.forEach((name, value) -> {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            if (keyHeaders.contains(normalized)) {
+                values.add(normalized + '=' + value);
+            }
+        });
+        values.sort(null);
+        return values;
+    }
+
+    private record CallKey(HttpMethod method, String uri, List<String> headerValues, Class<?> responseType) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.paymend.commons.client;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.interceptor.CorrelationIdInterceptor;
+import com.paymend.commons.resilience.LatencyTracker;
+import com.paymend.commons.resilience.RequestBudget;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hedges idempotent calls: when no response has arrived after the hedge delay, a second identical
+ * call is started and the first successful response wins. The losing call is cancelled by interrupting
+ * its virtual thread, which closes its socket.
+ * <p>
+ * The delay is {@code paymend.http-client.hedging.delay} if set, otherwise the observed
+ * {@code percentile} latency of the client (never below {@code minDelay}). Until enough samples have
+ * been seen no hedge is sent. Hedges are capped per client by a {@link RequestBudget}, and both calls
+ * share the caller's correlation request-id.
+ * </p>
+ * <p>
+ * The cancelled call fails with an I/O error that says nothing about the downstream. Resilience
+ * interceptors check {@link #isCancelledHedge()} so that they do not count it as a failure.
+ * </p>
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+
+    private final RestTemplateConfigProperties.Hedging hedgingConfig;
+    private final ClientNameResolver clientNameResolver;
+    private final AsyncHttpExecutor asyncHttpExecutor;
+    private final CorrelationIdInterceptor correlationIdInterceptor;
+    private final Map<String, ClientState> clients = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<HedgedCall<?>> CURRENT_CALL = new ThreadLocal<>();
+
+    public RequestHedger(RestTemplateConfigProperties properties, ClientNameResolver clientNameResolver,
+            AsyncHttpExecutor asyncHttpExecutor, CorrelationIdInterceptor correlationIdInterceptor) {
+        this.hedgingConfig = properties.getHedging();
+        this.clientNameResolver = clientNameResolver;
+        this.asyncHttpExecutor = asyncHttpExecutor;
+        this.correlationIdInterceptor = correlationIdInterceptor;
+    }
+
+    /**
+     * Whether the current thread runs a hedged call that was cancelled because the other call completed first.
+     */
+    public static boolean isCancelledHedge() {
+        HedgedCall<?> call = CURRENT_CALL.get();
+        return call != null && call.isCancelled();
+    }
+
+    public boolean isEnabled() {
+        return hedgingConfig.isEnabled();
+    }
+
+    public <T> T execute(String uri, Supplier<T> call) {
+        ClientState client = clients.computeIfAbsent(clientNameResolver.resolve(URI.create(uri)), this::createClientState);
+        client.budget.recordRequest();
+
+        long delayNanos = hedgeDelayNanos(client);
+        if (delayNanos < 0) {
+            long start = System.nanoTime();
+            T result = call.get();
+            client.latency.record(System.nanoTime() - start);
+            return result;
+        }
+
+        if (CorrelationContext.hasRequestId()) {
+            return hedged(uri, call, client, delayNanos);
+        }
+        // Both calls must carry the same request-id, so bind one for the duration of this call only
+        try {
+            return CorrelationContext.call(correlationIdInterceptor.generateRequestId(),
+                    () -> hedged(uri, call, client, delayNanos));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T hedged(String uri, Supplier<T> call, ClientState client, long delayNanos) {
+        HedgedCall<T> primary = submit(call, client);
+        try {
+            return primary.result.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return hedge(uri, call, client, primary);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for " + uri);
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private <T> T hedge(String uri, Supplier<T> call, ClientState client, HedgedCall<T> primary) {
+        if (!client.budget.tryAcquire()) {
+            log.debug("Hedge budget exhausted for {}, waiting for primary call", client.name);
+            return join(primary.result, primary);
+        }
+
+        log.debug("No response from {} after hedge delay, sending hedged request", uri);
+        HedgedCall<T> secondary = submit(call, client);
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (HedgedCall<T> attempt : List.of(primary, secondary)) {
+            attempt.result.whenComplete((value, error) -> {
+                if (error == null) {
+                    winner.complete(value);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            return join(winner, primary, secondary);
+        } finally {
+            primary.cancel(true);
+            secondary.cancel(true);
+        }
+    }
+
+    @SafeVarargs
+    private static <T> T join(CompletableFuture<T> future, HedgedCall<T>... calls) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            for (HedgedCall<T> call : calls) {
+                call.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for hedged call");
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private <T> HedgedCall<T> submit(Supplier<T> call, ClientState client) {
+        HedgedCall<T> hedgedCall = new HedgedCall<>(() -> {
+            long start = System.nanoTime();
+            T result = call.get();
+            client.latency.record(System.nanoTime() - start);
+            return result;
+        });
+        asyncHttpExecutor.execute(hedgedCall);
+        return hedgedCall;
+    }
+
+    private long hedgeDelayNanos(ClientState client) {
+        if (hedgingConfig.getDelay() != null) {
+            return hedgingConfig.getDelay().toNanos();
+        }
+        long observed = client.latency.percentile(hedgingConfig.getPercentile());
+        if (observed < 0) {
+            return -1;
+        }
+        return Math.max(observed, hedgingConfig.getMinDelay().toNanos());
+    }
+
+    private ClientState createClientState(String name) {
+        return new ClientState(name,
+                new LatencyTracker(hedgingConfig.getLatencyWindow(), hedgingConfig.getMinSamples()),
+                new RequestBudget(hedgingConfig.getBudgetPercent(), hedgingConfig.getBudgetMaxTokens()));
+    }
+
+    private record ClientState(String name, LatencyTracker latency, RequestBudget budget) {
+    }
+
+    /**
+     * Interruptible task whose outcome is mirrored into a {@link CompletableFuture}.
+     */
+    private static final class HedgedCall<T> extends FutureTask<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        HedgedCall(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            CURRENT_CALL.set(this);
+            try {
+                super.run();
+            } finally {
+                CURRENT_CALL.remove();
+            }
+        }
+
+        @Override
+        protected void done() {
+            try {
+                result.complete(get());
+            } catch (ExecutionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (CancellationException | InterruptedException e) {
+                result.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.paymend.commons.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Buffers responses so that their body can be read more than once, without buffering requests.
+ * <p>
+ * Unlike {@code BufferingClientHttpRequestFactory}, the request body is handed to the underlying request
+ * as is. A {@code RestTemplate} with interceptors has already buffered it once into the {@code byte[]}
+ * the interceptors see, and that array is streamed to the transport without another copy.
+ * </p>
+ */
+public class ResponseBufferingClientHttpRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    public ResponseBufferingClientHttpRequestFactory(ClientHttpRequestFactory requestFactory) {
+        super(requestFactory);
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        return new ResponseBufferingRequest(requestFactory.createRequest(uri, httpMethod));
+    }
+
+    private record ResponseBufferingRequest(ClientHttpRequest request)
+            implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return request.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(request.getBody());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write request body", e);
+            }
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            return new BufferedResponse(request.execute());
+        }
+    }
+
+    private static final class BufferedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private byte[] body;
+
+        BufferedResponse(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = StreamUtils.copyToByteArray(response.getBody());
+            }
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
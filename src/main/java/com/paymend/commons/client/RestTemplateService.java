@@ -1,19 +1,29 @@
 package com.paymend.commons.client;
 
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.paymend.commons.config.MaskingConfigProperties;
+import com.paymend.commons.client.JsonBodyWriter.JsonBody;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.logging.LogArguments;
+import com.paymend.commons.logging.LogDecision;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,56 +33,51 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class RestTemplateService {
 
-    private final ObjectMapper objectMapper;
-    private final MaskingConfigProperties maskingConfigProperties;
+    private final JsonBodyWriter jsonBodyWriter;
+    private final HeaderMasker headerMasker;
+    private final JsonBodyRedactor jsonBodyRedactor;
+    private final AsyncHttpExecutor asyncHttpExecutor;
+    private final RequestHedger requestHedger;
+    private final RequestCoalescer requestCoalescer;
+    private final TrafficLogger trafficLogger;
+    private final LoggingPolicyResolver loggingPolicyResolver;
 
     public <T> ResponseEntity<T> postWithBodyLogging(RestTemplate restTemplate, Object requestBody, String uri,
             Map<String, String> headers, Class<T> responseType) {
-        try {
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-
-            log.info("POST {}", uri);
-            headers.forEach((k, v) -> log.info("Header: {} = {}", k, maskHeaderValue(k, v)));
-            log.info("Request Body: {}", jsonBody);
-
-            HttpHeaders httpHeaders = new HttpHeaders();
-            headers.forEach(httpHeaders::set);
-            
-            HttpEntity<String> requestEntity = new HttpEntity<>(jsonBody, httpHeaders);
-            
-            ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.POST, requestEntity, responseType);
-            
-            log.info("Response Status: {}", response.getStatusCode());
-            return response;
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize request body", e);
-            throw new RuntimeException("Failed to serialize request body", e);
-        } catch (HttpClientErrorException e) {
-            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw e;
-        } catch (Exception e) {
-            log.error("Error during API call", e);
-            throw new RuntimeException("Error during API call", e);
-        }
+        return exchangeWithJsonBody(restTemplate, HttpMethod.POST, requestBody, uri, headers, responseType);
     }
 
     public <T> ResponseEntity<T> getWithHeaderLogging(RestTemplate restTemplate, String uri,
             Map<String, String> headers, Class<T> responseType) {
         
-        log.info("GET {}", uri);
-        headers.forEach((k, v) -> log.info("Header: {} = {}", k, maskHeaderValue(k, v)));
+        LogDecision logDecision = loggingPolicyResolver.decide(uri);
+        if (!logDecision.isOff()) {
+            trafficLogger.info(log, "GET {}", uri);
+            logHeaders(headers);
+        }
 
         HttpHeaders httpHeaders = new HttpHeaders();
         headers.forEach(httpHeaders::set);
         
         HttpEntity<Void> requestEntity = new HttpEntity<>(httpHeaders);
         
+        Supplier<ResponseEntity<T>> exchange =
+                () -> restTemplate.exchange(uri, HttpMethod.GET, requestEntity, responseType);
+        Supplier<ResponseEntity<T>> call = requestHedger.isEnabled()
+                ? () -> requestHedger.execute(uri, exchange)
+                : exchange;
+
         try {
-            ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.GET, requestEntity, responseType);
-            log.info("Response Status: {}", response.getStatusCode());
+            ResponseEntity<T> response = requestCoalescer.isEnabled()
+                    ? requestCoalescer.execute(HttpMethod.GET, uri, headers, responseType, call)
+                    : call.get();
+            logResponseStatus(logDecision, response);
             return response;
         } catch (HttpClientErrorException e) {
-            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), errorBody(logDecision, e));
+            throw e;
+        } catch (CallNotPermittedException e) {
+            log.warn("API call rejected: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
             log.error("Error during API call", e);
@@ -82,39 +87,17 @@ public class RestTemplateService {
 
     public <T> ResponseEntity<T> putWithBodyLogging(RestTemplate restTemplate, Object requestBody, String uri,
             Map<String, String> headers, Class<T> responseType) {
-        try {
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-
-            log.info("PUT {}", uri);
-            headers.forEach((k, v) -> log.info("Header: {} = {}", k, maskHeaderValue(k, v)));
-            log.info("Request Body: {}", jsonBody);
-
-            HttpHeaders httpHeaders = new HttpHeaders();
-            headers.forEach(httpHeaders::set);
-            
-            HttpEntity<String> requestEntity = new HttpEntity<>(jsonBody, httpHeaders);
-            
-            ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.PUT, requestEntity, responseType);
-            
-            log.info("Response Status: {}", response.getStatusCode());
-            return response;
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize request body", e);
-            throw new RuntimeException("Failed to serialize request body", e);
-        } catch (HttpClientErrorException e) {
-            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            throw e;
-        } catch (Exception e) {
-            log.error("Error during API call", e);
-            throw new RuntimeException("Error during API call", e);
-        }
+        return exchangeWithJsonBody(restTemplate, HttpMethod.PUT, requestBody, uri, headers, responseType);
     }
 
     public <T> ResponseEntity<T> deleteWithHeaderLogging(RestTemplate restTemplate, String uri,
             Map<String, String> headers, Class<T> responseType) {
         
-        log.info("DELETE {}", uri);
-        headers.forEach((k, v) -> log.info("Header: {} = {}", k, maskHeaderValue(k, v)));
+        LogDecision logDecision = loggingPolicyResolver.decide(uri);
+        if (!logDecision.isOff()) {
+            trafficLogger.info(log, "DELETE {}", uri);
+            logHeaders(headers);
+        }
 
         HttpHeaders httpHeaders = new HttpHeaders();
         headers.forEach(httpHeaders::set);
@@ -123,10 +106,13 @@ public class RestTemplateService {
         
         try {
             ResponseEntity<T> response = restTemplate.exchange(uri, HttpMethod.DELETE, requestEntity, responseType);
-            log.info("Response Status: {}", response.getStatusCode());
+            logResponseStatus(logDecision, response);
             return response;
         } catch (HttpClientErrorException e) {
-            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), errorBody(logDecision, e));
+            throw e;
+        } catch (CallNotPermittedException e) {
+            log.warn("API call rejected: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
             log.error("Error during API call", e);
@@ -134,16 +120,119 @@ public class RestTemplateService {
         }
     }
 
-    protected String maskHeaderValue(String headerName, String headerValue) {
-        if (headerName == null) {
-            return headerValue;
+    public <T> CompletableFuture<ResponseEntity<T>> postWithBodyLoggingAsync(RestTemplate restTemplate,
+            Object requestBody, String uri, Map<String, String> headers, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> postWithBodyLogging(restTemplate, requestBody, uri, headers, responseType), asyncHttpExecutor);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> getWithHeaderLoggingAsync(RestTemplate restTemplate, String uri,
+            Map<String, String> headers, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> getWithHeaderLogging(restTemplate, uri, headers, responseType), asyncHttpExecutor);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> putWithBodyLoggingAsync(RestTemplate restTemplate,
+            Object requestBody, String uri, Map<String, String> headers, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> putWithBodyLogging(restTemplate, requestBody, uri, headers, responseType), asyncHttpExecutor);
+    }
+
+    public <T> CompletableFuture<ResponseEntity<T>> deleteWithHeaderLoggingAsync(RestTemplate restTemplate, String uri,
+            Map<String, String> headers, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(
+                () -> deleteWithHeaderLogging(restTemplate, uri, headers, responseType), asyncHttpExecutor);
+    }
+
+    private <T> ResponseEntity<T> exchangeWithJsonBody(RestTemplate restTemplate, HttpMethod method,
+            Object requestBody, String uri, Map<String, String> headers, Class<T> responseType) {
+        LogDecision logDecision = loggingPolicyResolver.decide(uri);
+        try (JsonBody jsonBody = jsonBodyWriter.write(requestBody)) {
+            if (!logDecision.isOff()) {
+                trafficLogger.info(log, "{} {}", method, uri);
+                logHeaders(headers);
+            }
+            if (logDecision.logsBodies()) {
+                logRequestBody(logDecision, jsonBody);
+            }
+
+            RequestCallback acceptHeaderCallback = restTemplate.acceptHeaderRequestCallback(responseType);
+            RequestCallback requestCallback = request -> {
+                acceptHeaderCallback.doWithRequest(request);
+                HttpHeaders httpHeaders = request.getHeaders();
+                headers.forEach(httpHeaders::set);
+                if (httpHeaders.getContentType() == null) {
+                    httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+                }
+                httpHeaders.setContentLength(jsonBody.length());
+                jsonBody.writeTo(request.getBody());
+            };
+
+            long start = System.nanoTime();
+            ResponseEntity<T> response;
+            try {
+                response = restTemplate.execute(uri, method, requestCallback,
+                        restTemplate.responseEntityExtractor(responseType));
+            } catch (RuntimeException e) {
+                // At ON_ERROR the body is held back; log it while its pooled buffer is still open
+                if (logDecision.isDeferred()) {
+                    logRequestBody(logDecision, jsonBody);
+                }
+                throw e;
+            }
+            if (logDecision.isDeferred()
+                    && logDecision.isFailure(response.getStatusCode().isError(), System.nanoTime() - start)) {
+                logRequestBody(logDecision, jsonBody);
+            }
+
+            logResponseStatus(logDecision, response);
+            return response;
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize request body", e);
+            throw new RuntimeException("Failed to serialize request body", e);
+        } catch (HttpClientErrorException e) {
+            log.error("HTTP client error during API call: {} - {}", e.getStatusCode(), errorBody(logDecision, e));
+            throw e;
+        } catch (CallNotPermittedException e) {
+            log.warn("API call rejected: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error during API call", e);
+            throw new RuntimeException("Error during API call", e);
         }
+    }
+
+    private void logRequestBody(LogDecision logDecision, JsonBody jsonBody) {
+        int length = Math.min(jsonBody.length(), Math.max(0, logDecision.maxRequestBodyBytes()));
+        // The pooled buffer is released when the call returns, so async logging needs its own copy
+        byte[] bodyBytes = trafficLogger.isAsync() ? Arrays.copyOf(jsonBody.array(), length) : jsonBody.array();
+        trafficLogger.info(log, "Request Body: {}",
+                LogArguments.body(bodyBytes, length, jsonBody.length(), jsonBodyRedactor));
+    }
 
-        Set<String> sensitiveHeaders = maskingConfigProperties.getSensitiveHeadersNormalized();
+    private Object errorBody(LogDecision logDecision, HttpClientErrorException e) {
+        byte[] body = e.getResponseBodyAsByteArray();
+        int length = Math.min(body.length, Math.max(0, logDecision.maxResponseBodyBytes()));
+        return LogArguments.body(body, length, body.length, jsonBodyRedactor);
+    }
+
+    private void logResponseStatus(LogDecision logDecision, ResponseEntity<?> response) {
+        if (!logDecision.isOff()) {
+            trafficLogger.info(log, "Response Status: {}", response.getStatusCode());
+        }
+    }
 
-        if (sensitiveHeaders.contains(headerName.trim().toLowerCase())) {
-            return "*** MASKED ***";
+    private void logHeaders(Map<String, String> headers) {
+        if (headers.isEmpty()) {
+            return;
         }
-        return headerValue;
+        // One record for all headers, so a call takes a single ring-buffer slot however many headers it has
+        HttpHeaders masked = new HttpHeaders();
+        headers.forEach((k, v) -> masked.add(k, maskHeaderValue(k, v)));
+        trafficLogger.info(log, "Headers:\n{}", LogArguments.headerLines(masked, headerMasker));
+    }
+
+    protected String maskHeaderValue(String headerName, String headerValue) {
+        return headerMasker.mask(headerName, headerValue);
     }
-}
\ No newline at end of file
+}
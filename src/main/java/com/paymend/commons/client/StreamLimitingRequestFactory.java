@@ -0,0 +1,224 @@
+package com.paymend.commons.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Caps the exchanges in flight over the JDK {@code HttpClient}, which has no pool limits of its own: in total
+ * and per host, each waiting at most the lease timeout. A permit is held from sending the request until the
+ * response is closed, so over HTTP/2 the limits bound concurrent streams and over HTTP/1.1 open connections.
+ * A call that gets no permit in time fails with {@link ConnectionRequestTimeoutException}, as in pooled mode.
+ * A host's slots are dropped once no call holds or waits for them, so hosts seen once are not kept.
+ */
+class StreamLimitingRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    private final Semaphore total;
+    private final int maxTotal;
+    private final int maxPerHost;
+    private final long leaseTimeoutNanos;
+    private final Map<String, HostSlots> hosts = new ConcurrentHashMap<>();
+
+    StreamLimitingRequestFactory(ClientHttpRequestFactory requestFactory, int maxTotal, int maxPerHost,
+            Duration leaseTimeout) {
+        super(requestFactory);
+        this.total = new Semaphore(maxTotal, true);
+        this.maxTotal = maxTotal;
+        this.maxPerHost = maxPerHost;
+        this.leaseTimeoutNanos = leaseTimeout.toNanos();
+    }
+
+    int getLeased() {
+        return maxTotal - total.availablePermits();
+    }
+
+    int getPending() {
+        return total.getQueueLength();
+    }
+
+    int getMaxTotal() {
+        return maxTotal;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        return new LimitedRequest(requestFactory.createRequest(uri, httpMethod));
+    }
+
+    int getHostCount() {
+        return hosts.size();
+    }
+
+    private Permit acquire(URI uri) throws IOException {
+        String hostName = String.valueOf(uri.getHost());
+        HostSlots host = hosts.compute(hostName, (name, slots) -> (slots == null ? new HostSlots() : slots).retain());
+        long deadline = System.nanoTime() + leaseTimeoutNanos;
+        try {
+            if (!host.semaphore.tryAcquire(leaseTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                unregister(hostName);
+                throw new ConnectionRequestTimeoutException("Timeout waiting for a stream to " + uri.getHost());
+            }
+            if (!total.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                host.semaphore.release();
+                unregister(hostName);
+                throw new ConnectionRequestTimeoutException("Timeout waiting for a stream");
+            }
+        } catch (InterruptedException e) {
+            unregister(hostName);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a stream to " + uri.getHost());
+        }
+        return new Permit(hostName, host);
+    }
+
+    /** Drops the host's slots once no call holds or waits for one, so the map only holds hosts in use. */
+    private void unregister(String hostName) {
+        hosts.computeIfPresent(hostName, (name, slots) -> slots.releaseUser() ? null : slots);
+    }
+
+    /** Per-host semaphore and the number of calls holding or waiting for it, guarded by the map entry. */
+    private final class HostSlots {
+
+        private final Semaphore semaphore = new Semaphore(maxPerHost, true);
+        private int users;
+
+        HostSlots retain() {
+            users++;
+            return this;
+        }
+
+        /** @return whether no users remain */
+        boolean releaseUser() {
+            return --users == 0;
+        }
+    }
+
+    private final class Permit {
+
+        private final String hostName;
+        private final HostSlots host;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(String hostName, HostSlots host) {
+            this.hostName = hostName;
+            this.host = host;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                total.release();
+                host.semaphore.release();
+                unregister(hostName);
+            }
+        }
+    }
+
+    private final class LimitedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest request;
+
+        LimitedRequest(ClientHttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return request.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return request.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return request.getAttributes();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return request.getHeaders();
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return request.getBody();
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                streamingRequest.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(request.getBody());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write request body", e);
+            }
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            Permit permit = acquire(request.getURI());
+            try {
+                return new LimitedResponse(request.execute(), permit);
+            } catch (IOException | RuntimeException | Error e) {
+                permit.release();
+                throw e;
+            }
+        }
+    }
+
+    private record LimitedResponse(ClientHttpResponse response, Permit permit) implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                permit.release();
+            }
+        }
+    }
+}
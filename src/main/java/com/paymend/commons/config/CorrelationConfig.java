@@ -0,0 +1,48 @@
+package com.paymend.commons.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import com.paymend.commons.config.RestTemplateConfigProperties.Correlation.ContextStorage;
+import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.context.CorrelationStorage;
+import com.paymend.commons.context.CorrelationTaskDecorator;
+import com.paymend.commons.context.ScopedValueCorrelationStorage;
+import com.paymend.commons.context.ThreadLocalCorrelationStorage;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@Slf4j
+@RequiredArgsConstructor
+public class CorrelationConfig {
+
+    private final RestTemplateConfigProperties restTemplateConfigProperties;
+
+    @Bean
+    public CorrelationStorage correlationStorage() {
+        ContextStorage contextStorage = restTemplateConfigProperties.getCorrelation().getContextStorage();
+        CorrelationStorage storage;
+        if (contextStorage == ContextStorage.SCOPED_VALUE && ScopedValueCorrelationStorage.isSupported()) {
+            storage = new ScopedValueCorrelationStorage();
+        } else {
+            if (contextStorage == ContextStorage.SCOPED_VALUE) {
+                log.warn("java.lang.ScopedValue is not available on this JDK, keeping the request-id in a ThreadLocal");
+            }
+            storage = new ThreadLocalCorrelationStorage();
+        }
+        CorrelationContext.useStorage(storage);
+        return storage;
+    }
+
+    /**
+     * Picked up by Spring Boot for the {@code @Async} and {@code @Scheduled} executors, as long as it is
+     * the only {@link TaskDecorator}; otherwise compose it into the application's own decorator.
+     */
+    @Bean
+    public TaskDecorator correlationTaskDecorator() {
+        return new CorrelationTaskDecorator();
+    }
+}
@@ -2,12 +2,17 @@ package com.paymend.commons.config;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import com.paymend.commons.masking.HeaderNameSet;
+import com.paymend.commons.masking.JsonFieldMatcher;
+import com.paymend.commons.masking.SensitiveDataScanner;
+
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 
 @Component
 @ConfigurationProperties(prefix = "paymend.masking")
@@ -15,13 +20,65 @@ import lombok.Data;
 public class MaskingConfigProperties {
 
     private List<String> sensitiveHeaders = List.of("authorization", "x-api-key", "x-auth-token");
-    
+
+    /** Compiled from {@link #sensitiveHeaders} whenever they are bound or rebound. */
+    @Setter(AccessLevel.NONE)
+    private volatile HeaderNameSet sensitiveHeaderNames = HeaderNameSet.of(sensitiveHeaders);
+
+    /** Whether logged JSON bodies are passed through the {@code JsonBodyRedactor}. */
+    private boolean redactBodies = true;
+
+    /**
+     * Field names, matched at any depth ignoring case, or JSON paths such as {@code $.card.number},
+     * whose values are redacted from logged JSON bodies.
+     */
+    private List<String> sensitiveFields = List.of(
+            "password", "pan", "cardNumber", "card_number", "cvv", "cvc", "securityCode", "security_code",
+            "pin", "accessToken", "access_token", "refreshToken", "refresh_token", "clientSecret", "client_secret");
+
+    /** Compiled from {@link #sensitiveFields} whenever they are bound or rebound. */
+    @Setter(AccessLevel.NONE)
+    private volatile JsonFieldMatcher sensitiveFieldMatcher = JsonFieldMatcher.of(sensitiveFields);
+
+    /** Whether logged bodies are scanned for card numbers and {@link #sensitiveKeywords} after field redaction. */
+    private boolean scanBodies = true;
+
+    /** Keywords, matched ignoring case, whose following value is masked in logged bodies. */
+    private List<String> sensitiveKeywords = List.of(
+            "password=", "passwd=", "pan=", "cvv=", "cvc=", "pin=", "secret=", "token=",
+            "<password>", "<pan>", "<cardnumber>", "<cvv>", "<cvc>", "<pin>", "<secret>", "<token>");
+
+    /** JSON fields, matched ignoring case, whose digit values are ids or timestamps and never masked as card numbers. */
+    private List<String> nonPanFields = List.of(
+            "id", "timestamp", "time", "date", "createdAt", "created_at", "updatedAt", "updated_at",
+            "expiresAt", "expires_at", "requestId", "request_id", "transactionId", "transaction_id",
+            "orderId", "order_id");
+
+    /** Compiled from {@link #sensitiveKeywords} and {@link #nonPanFields} whenever they are bound or rebound. */
+    @Setter(AccessLevel.NONE)
+    private volatile SensitiveDataScanner sensitiveDataScanner = SensitiveDataScanner.of(sensitiveKeywords, nonPanFields);
+
+    public void setSensitiveHeaders(List<String> sensitiveHeaders) {
+        this.sensitiveHeaders = sensitiveHeaders;
+        this.sensitiveHeaderNames = HeaderNameSet.of(sensitiveHeaders);
+    }
+
+    public void setSensitiveFields(List<String> sensitiveFields) {
+        this.sensitiveFieldMatcher = JsonFieldMatcher.of(sensitiveFields);
+        this.sensitiveFields = sensitiveFields;
+    }
+
+    public void setSensitiveKeywords(List<String> sensitiveKeywords) {
+        this.sensitiveKeywords = sensitiveKeywords;
+        this.sensitiveDataScanner = SensitiveDataScanner.of(sensitiveKeywords, nonPanFields);
+    }
+
+    public void setNonPanFields(List<String> nonPanFields) {
+        this.nonPanFields = nonPanFields;
+        this.sensitiveDataScanner = SensitiveDataScanner.of(sensitiveKeywords, nonPanFields);
+    }
+
     public Set<String> getSensitiveHeadersNormalized() {
-        if (sensitiveHeaders == null) {
-            return Set.of();
-        }
-        return sensitiveHeaders.stream()
-                .map(h -> h.trim().toLowerCase())
-                .collect(Collectors.toSet());
+        return sensitiveHeaderNames.names();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.paymend.commons.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.context.RequestIdGenerator;
+import com.paymend.commons.context.SortableRequestIdGenerator;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.reactive.CorrelationExchangeFilter;
+import com.paymend.commons.reactive.CorrelationWebFilter;
+import com.paymend.commons.reactive.LoggingExchangeFilter;
+import com.paymend.commons.reactive.MetricsExchangeFilter;
+import com.paymend.commons.reactive.RetryExchangeFilter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reactive counterpart of {@link RestTemplateConfig}, active when {@code spring-webflux} is on the classpath.
+ * Every {@code WebClient} built from Spring Boot's {@code WebClient.Builder} gets the correlation, retry,
+ * traffic logging and metrics filters, in that order, so logging and metrics see each retry attempt.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.web.reactive.function.client.WebClient")
+@RequiredArgsConstructor
+public class ReactiveClientConfig {
+
+    private final RestTemplateConfigProperties restTemplateConfigProperties;
+    private final ClientNameResolver clientNameResolver;
+    private final TrafficLogger trafficLogger;
+    private final LoggingPolicyResolver loggingPolicyResolver;
+    private final HeaderMasker headerMasker;
+    private final ObjectProvider<RequestIdGenerator> requestIdGenerator;
+    private final PaymentMetrics paymentMetrics;
+
+    @Bean
+    public WebClientCustomizer paymendWebClientCustomizer() {
+        CorrelationExchangeFilter correlation = correlationExchangeFilter();
+        RetryExchangeFilter retry = retryExchangeFilter();
+        LoggingExchangeFilter logging = loggingExchangeFilter();
+        MetricsExchangeFilter metrics = metricsExchangeFilter();
+        return builder -> builder.filter(correlation).filter(retry).filter(logging).filter(metrics);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CorrelationWebFilter correlationWebFilter() {
+        return new CorrelationWebFilter();
+    }
+
+    @Bean
+    public CorrelationExchangeFilter correlationExchangeFilter() {
+        return new CorrelationExchangeFilter(restTemplateConfigProperties.getCorrelation(),
+                requestIdGenerator.getIfAvailable(SortableRequestIdGenerator::new));
+    }
+
+    @Bean
+    public RetryExchangeFilter retryExchangeFilter() {
+        return new RetryExchangeFilter(clientNameResolver, restTemplateConfigProperties.getRetry());
+    }
+
+    @Bean
+    public LoggingExchangeFilter loggingExchangeFilter() {
+        return new LoggingExchangeFilter(trafficLogger, loggingPolicyResolver, clientNameResolver, headerMasker, paymentMetrics);
+    }
+
+    @Bean
+    public MetricsExchangeFilter metricsExchangeFilter() {
+        return new MetricsExchangeFilter(clientNameResolver, paymentMetrics);
+    }
+}
@@ -1,36 +1,47 @@
 package com.paymend.commons.config;
 
-import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatusCode;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.RetryListener;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.client.HttpTransportFactory;
+import com.paymend.commons.client.ResponseBufferingClientHttpRequestFactory;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging;
 import com.paymend.commons.config.RestTemplateConfigProperties.Retry;
+import com.paymend.commons.context.RequestIdGenerator;
+import com.paymend.commons.context.SortableRequestIdGenerator;
 import com.paymend.commons.exception.RetryableHttpException;
+import com.paymend.commons.interceptor.AdaptiveConcurrencyInterceptor;
+import com.paymend.commons.interceptor.BulkheadInterceptor;
+import com.paymend.commons.interceptor.CircuitBreakerInterceptor;
 import com.paymend.commons.interceptor.CorrelationIdInterceptor;
+import com.paymend.commons.interceptor.HttpCacheInterceptor;
+import com.paymend.commons.interceptor.HttpClientMetricsInterceptor;
+import com.paymend.commons.interceptor.HttpLoggingInterceptor;
+import com.paymend.commons.interceptor.RetryInterceptor;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.resilience.RetryBudgetPolicy;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -42,6 +53,14 @@ import lombok.extern.slf4j.Slf4j;
 public class RestTemplateConfig {
 
     private final RestTemplateConfigProperties restTemplateConfigProperties;
+    private final HttpTransportFactory httpTransportFactory;
+    private final ClientNameResolver clientNameResolver;
+    private final TrafficLogger trafficLogger;
+    private final LoggingPolicyResolver loggingPolicyResolver;
+    private final HeaderMasker headerMasker;
+    private final JsonBodyRedactor jsonBodyRedactor;
+    private final ObjectProvider<RequestIdGenerator> requestIdGenerator;
+    private final PaymentMetrics paymentMetrics;
 
     @Bean
     public RetryTemplate retryTemplate(RetryListener retryListener) {
@@ -55,12 +74,14 @@ public class RestTemplateConfig {
 
         SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(retry.getMaxAttempts(), retryableExceptions);
 
-        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        ExponentialBackOffPolicy backOffPolicy = retry.isJitter()
+                ? new ExponentialRandomBackOffPolicy()
+                : new ExponentialBackOffPolicy();
         backOffPolicy.setInitialInterval(retry.getInitialInterval().toMillis());
         backOffPolicy.setMaxInterval(retry.getMaxInterval().toMillis());
         backOffPolicy.setMultiplier(retry.getMultiplier());
 
-        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setRetryPolicy(new RetryBudgetPolicy(retryPolicy));
         retryTemplate.setBackOffPolicy(backOffPolicy);
         retryTemplate.registerListener(retryListener);
         
@@ -68,108 +89,83 @@ public class RestTemplateConfig {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
-        return restTemplateBuilder().build();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
     }
 
     @Bean
-    public RestTemplateBuilder restTemplateBuilder() {
+    public RestTemplateBuilder restTemplateBuilder(RetryInterceptor retryInterceptor) {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(correlationIdInterceptor());
+        if (restTemplateConfigProperties.getCache().isEnabled()) {
+            interceptors.add(httpCacheInterceptor());
+        }
+        // RetryInterceptor must stay last: it re-executes the remaining chain for every attempt
+        interceptors.add(retryInterceptor);
+
         return new RestTemplateBuilder()
                 .requestFactory(this::createRequestFactory)
-                .interceptors(correlationIdInterceptor(), loggingInterceptor());
+                .interceptors(interceptors);
     }
 
     @Bean
-    public CorrelationIdInterceptor correlationIdInterceptor() {
-        return new CorrelationIdInterceptor(restTemplateConfigProperties.getCorrelation());
+    public RetryInterceptor retryInterceptor(RetryTemplate retryTemplate) {
+        return new RetryInterceptor(retryTemplate, clientNameResolver, restTemplateConfigProperties.getRetry(),
+                attemptInterceptors());
     }
 
-    private ClientHttpRequestFactory createRequestFactory() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout((int) restTemplateConfigProperties.getConnectTimeout().toMillis());
-        factory.setReadTimeout((int) restTemplateConfigProperties.getReadTimeout().toMillis());
-        
-        return new BufferingClientHttpRequestFactory(factory);
+    @Bean
+    public CorrelationIdInterceptor correlationIdInterceptor() {
+        return new CorrelationIdInterceptor(restTemplateConfigProperties.getCorrelation(),
+                requestIdGenerator.getIfAvailable(SortableRequestIdGenerator::new));
     }
 
-    private ClientHttpRequestInterceptor loggingInterceptor() {
-        return (request, body, execution) -> {
-            log.info("[RestTemplate Request] {} {}", request.getMethod(), request.getURI());
-            log.info("[RestTemplate Request] Headers: {}", request.getHeaders());
-            if (body != null && body.length > 0) {
-                log.info("[RestTemplate Request] Body: {}", new String(body, StandardCharsets.UTF_8));
-            }
-
-            ClientHttpResponse response = execution.execute(request, body);
-
-            if (isHttpStatusRetryable(response.getStatusCode())) {
-                throw new RetryableHttpException("Retryable status code: " + response.getStatusCode().value());
-            }
-            
-            HttpHeaders headers = response.getHeaders();
-            StringBuilder sb = new StringBuilder();
-            sb.append("[RestTemplate Response] Status code: ")
-              .append(response.getStatusCode().value())
-              .append("\nHeaders:\n");
-
-            headers.forEach((key, values) ->
-                    values.forEach(value -> sb.append(key).append(": ").append(value).append("\n")));
-
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
-                String responseBody = reader.lines().collect(Collectors.joining("\n"));
-                if (!responseBody.isBlank()) {
-                    sb.append("Body:\n").append(responseBody);
-                }
-                log.info(sb.toString());
-                
-                return new BufferedClientHttpResponse(response, responseBody);
-            } catch (IOException e) {
-                log.warn("Could not read response body for logging: {}", e.getMessage());
-                return response;
-            }
-        };
+    @Bean
+    public HttpCacheInterceptor httpCacheInterceptor() {
+        return new HttpCacheInterceptor(clientNameResolver, paymentMetrics, restTemplateConfigProperties.getCache());
     }
 
-    private boolean isHttpStatusRetryable(HttpStatusCode httpStatusCode) {
-        return getRetryableStatusCodes().contains(httpStatusCode);
+    @Bean
+    public AdaptiveConcurrencyInterceptor adaptiveConcurrencyInterceptor() {
+        return new AdaptiveConcurrencyInterceptor(clientNameResolver, paymentMetrics,
+                restTemplateConfigProperties.getConcurrencyLimit());
     }
 
-    private Set<HttpStatusCode> getRetryableStatusCodes() {
-        return restTemplateConfigProperties.getRetry().getRetryableStatusCodes().stream()
-            .map(HttpStatusCode::valueOf)
-            .collect(Collectors.toSet());
+    @Bean
+    public HttpLoggingInterceptor httpLoggingInterceptor() {
+        return new HttpLoggingInterceptor(restTemplateConfigProperties, trafficLogger, loggingPolicyResolver,
+                clientNameResolver, headerMasker, jsonBodyRedactor, paymentMetrics);
     }
 
-    @RequiredArgsConstructor
-    private static class BufferedClientHttpResponse implements ClientHttpResponse {
-
-        private final ClientHttpResponse originalResponse;
-        private final String responseBody;
+    @Bean
+    public HttpClientMetricsInterceptor httpClientMetricsInterceptor() {
+        return new HttpClientMetricsInterceptor(clientNameResolver, paymentMetrics);
+    }
 
-        @Override
-        public InputStream getBody() throws IOException {
-            return new ByteArrayInputStream(responseBody.getBytes(StandardCharsets.UTF_8));
+    private List<ClientHttpRequestInterceptor> attemptInterceptors() {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        if (restTemplateConfigProperties.getCircuitBreaker().isEnabled()) {
+            interceptors.add(new CircuitBreakerInterceptor(clientNameResolver,
+                    restTemplateConfigProperties.getCircuitBreaker()));
         }
-
-        @Override
-        public HttpHeaders getHeaders() {
-            return originalResponse.getHeaders();
+        if (restTemplateConfigProperties.getBulkhead().isEnabled()) {
+            interceptors.add(new BulkheadInterceptor(clientNameResolver, restTemplateConfigProperties.getBulkhead()));
         }
-
-        @Override
-        public HttpStatusCode getStatusCode() throws IOException {
-            return originalResponse.getStatusCode();
-        }
-
-        @Override
-        public String getStatusText() throws IOException {
-            return originalResponse.getStatusText();
+        if (restTemplateConfigProperties.getConcurrencyLimit().isEnabled()) {
+            interceptors.add(adaptiveConcurrencyInterceptor());
         }
+        interceptors.add(httpLoggingInterceptor());
+        // Innermost, so it times the exchange alone and sees retryable statuses before they become exceptions
+        interceptors.add(httpClientMetricsInterceptor());
+        return interceptors;
+    }
 
-        @Override
-        public void close() {
-            originalResponse.close();
+    private ClientHttpRequestFactory createRequestFactory() {
+        ClientHttpRequestFactory factory = httpTransportFactory.createRequestFactory();
+        if (restTemplateConfigProperties.getLogging().getMode() == Logging.Mode.STREAMING) {
+            return factory;
         }
+        // Only responses need buffering; request bodies are already buffered once by the interceptor chain
+        return new ResponseBufferingClientHttpRequestFactory(factory);
     }
-}
\ No newline at end of file
+}
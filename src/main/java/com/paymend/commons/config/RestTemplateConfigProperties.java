@@ -1,12 +1,17 @@
 package com.paymend.commons.config;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 
 @Component
 @ConfigurationProperties(prefix = "paymend.http-client")
@@ -15,8 +20,40 @@ public class RestTemplateConfigProperties {
 
     private Duration connectTimeout = Duration.ofSeconds(30);
     private Duration readTimeout = Duration.ofSeconds(60);
+    private Map<String, String> clientNames = new HashMap<>();
+    private Transport transport = new Transport();
     private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Bulkhead bulkhead = new Bulkhead();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
     private Correlation correlation = new Correlation();
+    private Logging logging = new Logging();
+    private Async async = new Async();
+    private Hedging hedging = new Hedging();
+    private Serialization serialization = new Serialization();
+    private Cache cache = new Cache();
+    private SingleFlight singleFlight = new SingleFlight();
+
+    @Data
+    public static class Transport {
+        private Mode mode = Mode.SIMPLE;
+        private int maxConnectionsTotal = 200;
+        private int maxConnectionsPerRoute = 50;
+        private Duration leaseTimeout = Duration.ofSeconds(5);
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration timeToLive = Duration.ofMinutes(5);
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public enum Mode {
+            /** {@code HttpURLConnection}, one connection per call. */
+            SIMPLE,
+            /** Apache HttpClient 5 connection pool (HTTP/1.1 keep-alive). */
+            POOLED,
+            /** JDK {@code HttpClient}, multiplexed HTTP/2 with HTTP/1.1 fallback. */
+            HTTP2
+        }
+    }
 
     @Data
     public static class Retry {
@@ -25,6 +62,49 @@ public class RestTemplateConfigProperties {
         private Duration maxInterval = Duration.ofSeconds(10);
         private double multiplier = 2.0;
         private List<Integer> retryableStatusCodes = List.of(500, 502, 503, 504);
+        private List<String> retryableMethods = List.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE");
+        private boolean jitter = true;
+        private Budget budget = new Budget();
+
+        @Data
+        public static class Budget {
+            private boolean enabled = true;
+            private double percent = 10.0;
+            private int maxTokens = 10;
+        }
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = false;
+        private int slidingWindowSize = 100;
+        private int minimumNumberOfCalls = 20;
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(5);
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private boolean enabled = false;
+        private int maxConcurrentCalls = 25;
+        private Duration maxWaitDuration = Duration.ZERO;
+    }
+
+    @Data
+    public static class ConcurrencyLimit {
+        private boolean enabled = false;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        /** How much a short RTT above the long-term RTT is tolerated before the limit shrinks. */
+        private double rttTolerance = 1.5;
+        private double smoothing = 0.2;
+        /** Number of samples the long-term RTT average spans. */
+        private int longWindow = 600;
+        private Duration maxWaitDuration = Duration.ZERO;
     }
 
     @Data
@@ -32,6 +112,125 @@ public class RestTemplateConfigProperties {
         private boolean enabled = true;
         private String requestIdHeader = "request-id";
         private String requestIdPrefix = "REQ-";
+        /** Characters after the prefix; set 18 or more to have generated ids start with their creation time. */
         private int requestIdLength = 12;
+        /** Where {@code CorrelationContext} keeps the request-id. */
+        private ContextStorage contextStorage = ContextStorage.THREAD_LOCAL;
+
+        public enum ContextStorage {
+            /** A {@code ThreadLocal} set and cleared around each request. */
+            THREAD_LOCAL,
+            /** A {@code ScopedValue} bound for the duration of each request; falls back to {@link #THREAD_LOCAL} on JDKs without it. */
+            SCOPED_VALUE
+        }
+    }
+
+    @Data
+    public static class Logging {
+        private Mode mode = Mode.BUFFERED;
+        /** Bytes of a request body written to the log; longer bodies are cut with a truncation marker. */
+        private int maxRequestBodyBytes = 8192;
+        /** Bytes of a response body written to the log; longer bodies are cut with a truncation marker. */
+        private int maxResponseBodyBytes = 8192;
+        /** Hand log records to a background writer instead of logging on the request thread. */
+        private boolean async = false;
+        /** Capacity of the async record buffer (rounded up to a power of two); records are dropped when full. */
+        private int bufferSize = 8192;
+        private Policy policy = new Policy();
+        /** Policies per client name (see {@code client-names}), overriding {@link #policy}. */
+        private Map<String, Policy> clients = new HashMap<>();
+        /** Policies per request path; the first match wins over client policies. */
+        private List<PathPolicy> paths = new ArrayList<>();
+
+        public enum Mode {
+            /** Responses are fully buffered in memory and logged in one message. */
+            BUFFERED,
+            /** Only the first {@code maxResponseBodyBytes} are copied for logging; the body is streamed to the caller. */
+            STREAMING
+        }
+
+        /**
+         * Sets both {@link #maxRequestBodyBytes} and {@link #maxResponseBodyBytes}.
+         *
+         * @deprecated use {@code max-request-body-bytes} and {@code max-response-body-bytes}
+         */
+        @Deprecated
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxRequestBodyBytes = maxBodyBytes;
+            this.maxResponseBodyBytes = maxBodyBytes;
+        }
+
+        @Data
+        public static class Policy {
+            private Level level = Level.BODIES;
+            /** Share of calls, in percent, whose bodies are logged at level {@code SAMPLED}. */
+            private double samplePercent = 10.0;
+            /** Calls slower than this count as failed at level {@code ON_ERROR}. */
+            private Duration slowThreshold = Duration.ofSeconds(2);
+
+            public enum Level {
+                /** Nothing is logged. */
+                OFF,
+                /** Request and response lines and headers only. */
+                HEADERS,
+                /** Headers and bodies of every call. */
+                BODIES,
+                /** Headers of every call, bodies of {@code samplePercent} of calls. */
+                SAMPLED,
+                /** Headers of every call, bodies only for errors and calls slower than {@code slowThreshold}. */
+                ON_ERROR
+            }
+        }
+
+        @Data
+        @EqualsAndHashCode(callSuper = true)
+        public static class PathPolicy extends Policy {
+            /** Ant-style path pattern, e.g. {@code /v1/tokens/**}. */
+            private String pattern;
+            /** Restricts the policy to one client; applies to all clients when unset. */
+            private String client;
+        }
+    }
+
+    @Data
+    public static class Async {
+        private String threadNamePrefix = "paymend-http-";
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        /** Fixed hedge delay; when unset the observed latency percentile of the client is used. */
+        private Duration delay;
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(50);
+        private Duration latencyWindow = Duration.ofMinutes(1);
+        private int minSamples = 100;
+        private double budgetPercent = 5.0;
+        private int budgetMaxTokens = 5;
+    }
+
+    @Data
+    public static class Serialization {
+        private int bufferPoolSize = 64;
+        private int initialBufferSize = 4096;
+        private int maxPooledBufferSize = 1024 * 1024;
+    }
+
+    @Data
+    public static class Cache {
+        private boolean enabled = false;
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+        private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+        private Map<String, DataSize> clientMaxSize = new HashMap<>();
+        private List<String> keyHeaders = List.of("authorization", "x-api-key");
+    }
+
+    @Data
+    public static class SingleFlight {
+        private boolean enabled = false;
+        /** Request headers that, besides method, URI and response type, identify identical requests. */
+        private List<String> keyHeaders = List.of("authorization", "x-api-key");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.paymend.commons.context;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ScheduledExecutorService} that wraps every task when it is scheduled; periodic tasks run each
+ * time with the context captured at scheduling.
+ */
+class CorrelatingScheduledExecutorService extends CorrelatingExecutorService implements ScheduledExecutorService {
+
+    private final ScheduledExecutorService delegate;
+
+    CorrelatingScheduledExecutorService(ScheduledExecutorService delegate) {
+        super(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return delegate.schedule(CorrelationExecutors.wrap(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return delegate.schedule(CorrelationExecutors.wrap(callable), delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        return delegate.scheduleAtFixedRate(CorrelationExecutors.wrap(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return delegate.scheduleWithFixedDelay(CorrelationExecutors.wrap(command), initialDelay, delay, unit);
+    }
+}
@@ -1,47 +1,83 @@
 package com.paymend.commons.context;
 
+import java.util.concurrent.Callable;
+
 import org.springframework.util.StringUtils;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Request-id of the current request, kept in a pluggable {@link CorrelationStorage}
+ * ({@code paymend.http-client.correlation.context-storage}); a {@link ThreadLocalCorrelationStorage} by default.
+ * <p>
+ * {@link #run} and {@link #call} bind a request-id for the duration of a task and work with every storage;
+ * {@link #setRequestId} and {@link #clear} remain for code that manages the context by hand.
+ * </p>
+ */
 @Slf4j
 public class CorrelationContext {
 
-    private static final ThreadLocal<String> REQUEST_ID = new ThreadLocal<>() {
-        @Override
-        protected String initialValue() {
-            return null;
-        }
-        
-        @Override
-        public void remove() {
-            super.remove();
-            log.trace("ThreadLocal REQUEST_ID removed for thread: {}", Thread.currentThread().getName());
-        }
-    };
+    private static volatile CorrelationStorage storage = new ThreadLocalCorrelationStorage();
+
+    /**
+     * Switches the storage; request-ids held by the previous storage are no longer visible.
+     */
+    public static void useStorage(CorrelationStorage correlationStorage) {
+        storage = correlationStorage;
+        log.debug("Correlation context storage: {}", correlationStorage.getClass().getSimpleName());
+    }
+
+    public static CorrelationStorage getStorage() {
+        return storage;
+    }
 
     public static void setRequestId(String requestId) {
         if (StringUtils.hasText(requestId)) {
-            REQUEST_ID.set(requestId);
+            storage.set(requestId);
             log.trace("Set request-id in context: {}", requestId);
         }
     }
 
     public static String getRequestId() {
-        return REQUEST_ID.get();
+        return storage.get();
     }
 
     public static void clear() {
-        REQUEST_ID.remove();
-        log.trace("Cleared correlation context");
+        storage.clear();
     }
 
     public static boolean hasRequestId() {
-        return StringUtils.hasText(REQUEST_ID.get());
+        return StringUtils.hasText(storage.get());
     }
 
     public static String getRequestIdOrDefault(String defaultValue) {
         String requestId = getRequestId();
         return StringUtils.hasText(requestId) ? requestId : defaultValue;
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs the task with the request-id bound. Without a request-id the task runs in the current context.
+     */
+    public static void run(String requestId, Runnable task) {
+        try {
+            call(requestId, () -> {
+                task.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Calls the task with the request-id bound. Without a request-id the task runs in the current context.
+     */
+    public static <T> T call(String requestId, Callable<T> task) throws Exception {
+        if (!StringUtils.hasText(requestId)) {
+            return task.call();
+        }
+        return storage.call(requestId, task);
+    }
+}
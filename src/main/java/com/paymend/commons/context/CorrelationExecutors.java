@@ -0,0 +1,126 @@
+package com.paymend.commons.context;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import org.slf4j.MDC;
+
+/**
+ * Carries the request-id of {@link CorrelationContext} and the SLF4J {@link MDC} over to other threads.
+ * <p>
+ * Both are captured when a task is wrapped (for executors: when it is submitted) and set on the worker
+ * thread only while the task runs; the worker's own context is restored afterwards, so tasks that run on
+ * the caller's thread are safe too. A task submitted without a request-id or MDC runs with none, whatever
+ * the worker thread may still hold. The cost is one map copy per task.
+ * </p>
+ * <pre>{@code
+ * Executor executor = CorrelationExecutors.wrap(Executors.newFixedThreadPool(8));
+ * CompletableFuture.supplyAsync(() -> client.fetch(id), executor);
+ * }</pre>
+ *
+ * @see CorrelationTaskDecorator
+ */
+public final class CorrelationExecutors {
+
+    private CorrelationExecutors() {
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Callable<Object> callable = wrap(Executors.callable(task));
+        return () -> {
+            try {
+                callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        String requestId = CorrelationContext.getRequestId();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setMdc(mdc);
+            try {
+                // Bound even when null, so no request-id left on the worker thread leaks into the task
+                return CorrelationContext.getStorage().call(requestId, task);
+            } finally {
+                setMdc(previous);
+            }
+        };
+    }
+
+    /**
+     * For {@code CompletableFuture.supplyAsync(supplier)} on the common pool; prefer passing a wrapped executor.
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        Callable<T> callable = wrap((Callable<T>) task::get);
+        return () -> {
+            try {
+                return callable.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    public static Executor wrap(Executor executor) {
+        if (executor instanceof ScheduledExecutorService scheduled) {
+            return wrap(scheduled);
+        }
+        if (executor instanceof ExecutorService service) {
+            return wrap(service);
+        }
+        return executor instanceof CorrelatingExecutor ? executor : new CorrelatingExecutor(executor);
+    }
+
+    public static ExecutorService wrap(ExecutorService executor) {
+        if (executor instanceof ScheduledExecutorService scheduled) {
+            return wrap(scheduled);
+        }
+        return executor instanceof CorrelatingExecutorService ? executor : new CorrelatingExecutorService(executor);
+    }
+
+    public static ScheduledExecutorService wrap(ScheduledExecutorService executor) {
+        return executor instanceof CorrelatingScheduledExecutorService
+                ? executor
+                : new CorrelatingScheduledExecutorService(executor);
+    }
+
+    /**
+     * A virtual-thread-per-task executor whose threads are named {@code namePrefix0}, {@code namePrefix1}, ...
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        return wrap(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory()));
+    }
+
+    private static boolean isEmpty(Map<String, String> mdc) {
+        return mdc == null || mdc.isEmpty();
+    }
+
+    private static void setMdc(Map<String, String> mdc) {
+        if (isEmpty(mdc)) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+
+    private record CorrelatingExecutor(Executor delegate) implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+    }
+}
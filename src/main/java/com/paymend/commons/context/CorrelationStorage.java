@@ -0,0 +1,30 @@
+package com.paymend.commons.context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Where {@link CorrelationContext} keeps the request-id of the current thread.
+ *
+ * @see ThreadLocalCorrelationStorage
+ * @see ScopedValueCorrelationStorage
+ */
+public interface CorrelationStorage {
+
+    /**
+     * The request-id visible to the current thread, or {@code null}.
+     */
+    String get();
+
+    /**
+     * Sets the request-id of the current thread until {@link #clear()}.
+     */
+    void set(String requestId);
+
+    void clear();
+
+    /**
+     * Calls the task with the request-id bound for its duration; the previous binding is visible again afterwards.
+     * A {@code null} request-id hides any request-id of the current thread while the task runs.
+     */
+    <T> T call(String requestId, Callable<T> task) throws Exception;
+}
@@ -0,0 +1,15 @@
+package com.paymend.commons.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates the request-id and MDC to Spring-managed executors, i.e. {@code @Async} methods and
+ * {@code @Scheduled} tasks when registered as the application's {@link TaskDecorator}.
+ */
+public class CorrelationTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return CorrelationExecutors.wrap(runnable);
+    }
+}
@@ -0,0 +1,14 @@
+package com.paymend.commons.context;
+
+/**
+ * Creates request-ids for outbound calls that have none. Declare a bean of this type to replace the
+ * default {@link SortableRequestIdGenerator}.
+ */
+@FunctionalInterface
+public interface RequestIdGenerator {
+
+    /**
+     * A new request-id: {@code prefix} followed by exactly {@code length} characters.
+     */
+    String generate(String prefix, int length);
+}
@@ -0,0 +1,154 @@
+package com.paymend.commons.context;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+
+/**
+ * Binds the request-id in a {@code java.lang.ScopedValue} for the duration of {@link #call}, so nothing
+ * is left behind in per-thread maps of short-lived virtual threads and nothing needs clearing.
+ * <p>
+ * {@code ScopedValue} is a preview API on Java 21, so it is reached through method handles and the
+ * library itself compiles without {@code --enable-preview}; {@link #isSupported()} reports whether the
+ * running JDK has it. Code that still calls {@link CorrelationContext#setRequestId} outside of a scope
+ * gets a {@link ThreadLocal} fallback, which a bound scope takes precedence over.
+ * </p>
+ */
+public final class ScopedValueCorrelationStorage implements CorrelationStorage {
+
+    private static final MethodHandle NEW_INSTANCE;
+    private static final MethodHandle WHERE;
+    private static final MethodHandle RUN;
+    private static final MethodHandle IS_BOUND;
+    private static final MethodHandle GET;
+
+    static {
+        MethodHandle newInstance = null;
+        MethodHandle where = null;
+        MethodHandle run = null;
+        MethodHandle isBound = null;
+        MethodHandle get = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> scopedValue = Class.forName("java.lang.ScopedValue");
+            Class<?> carrier = Class.forName("java.lang.ScopedValue$Carrier");
+            newInstance = lookup.findStatic(scopedValue, "newInstance", MethodType.methodType(scopedValue))
+                    .asType(MethodType.methodType(Object.class));
+            where = lookup.findStatic(scopedValue, "where", MethodType.methodType(carrier, scopedValue, Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+            run = lookup.findVirtual(carrier, "run", MethodType.methodType(void.class, Runnable.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+            // Not orElse(null): it rejects a null default from JDK 25 on
+            isBound = lookup.findVirtual(scopedValue, "isBound", MethodType.methodType(boolean.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            get = lookup.findVirtual(scopedValue, "get", MethodType.methodType(Object.class))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            newInstance = null;
+        }
+        NEW_INSTANCE = newInstance;
+        WHERE = where;
+        RUN = run;
+        IS_BOUND = isBound;
+        GET = get;
+    }
+
+    private final Object key;
+    private final ThreadLocal<String> fallback = new ThreadLocal<>();
+
+    public ScopedValueCorrelationStorage() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("java.lang.ScopedValue is not available on this JDK");
+        }
+        try {
+            this.key = (Object) NEW_INSTANCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create ScopedValue", e);
+        }
+    }
+
+    public static boolean isSupported() {
+        return NEW_INSTANCE != null;
+    }
+
+    @Override
+    public String get() {
+        String requestId = null;
+        try {
+            if ((boolean) IS_BOUND.invokeExact(key)) {
+                requestId = (String) (Object) GET.invokeExact(key);
+            }
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return requestId != null ? requestId : fallback.get();
+    }
+
+    @Override
+    public void set(String requestId) {
+        fallback.set(requestId);
+    }
+
+    @Override
+    public void clear() {
+        fallback.remove();
+    }
+
+    @Override
+    public <T> T call(String requestId, Callable<T> task) throws Exception {
+        String fallbackRequestId = fallback.get();
+        if (requestId == null && fallbackRequestId != null) {
+            // A null binding falls through to the fallback, so hide it for the duration of the call
+            fallback.remove();
+            try {
+                return call(null, task);
+            } finally {
+                fallback.set(fallbackRequestId);
+            }
+        }
+        ScopedCall<T> scopedCall = new ScopedCall<>(task);
+        try {
+            Object carrier = (Object) WHERE.invokeExact(key, (Object) requestId);
+            RUN.invokeExact(carrier, (Runnable) scopedCall);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+        return scopedCall.result();
+    }
+
+    /**
+     * Adapts a {@link Callable} to {@code Carrier.run}, whose {@code call} counterpart changed signature
+     * between JDK releases.
+     */
+    private static final class ScopedCall<T> implements Runnable {
+
+        private final Callable<T> task;
+        private T result;
+        private Exception failure;
+
+        ScopedCall(Callable<T> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                failure = e;
+            }
+        }
+
+        T result() throws Exception {
+            if (failure != null) {
+                throw failure;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.paymend.commons.context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps the request-id in a {@link ThreadLocal}. Scoped calls set it and restore the previous value.
+ */
+public final class ThreadLocalCorrelationStorage implements CorrelationStorage {
+
+    private final ThreadLocal<String> requestId = new ThreadLocal<>();
+
+    @Override
+    public String get() {
+        return requestId.get();
+    }
+
+    @Override
+    public void set(String requestId) {
+        this.requestId.set(requestId);
+    }
+
+    @Override
+    public void clear() {
+        requestId.remove();
+    }
+
+    @Override
+    public <T> T call(String requestId, Callable<T> task) throws Exception {
+        String previous = this.requestId.get();
+        this.requestId.set(requestId);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                this.requestId.remove();
+            } else {
+                this.requestId.set(previous);
+            }
+        }
+    }
+}
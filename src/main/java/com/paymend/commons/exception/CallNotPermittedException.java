@@ -0,0 +1,12 @@
+package com.paymend.commons.exception;
+
+/**
+ * Thrown when an outbound call is rejected before reaching the network,
+ * e.g. because the downstream's circuit breaker is open or its bulkhead is full.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String message) {
+        super(message);
+    }
+}
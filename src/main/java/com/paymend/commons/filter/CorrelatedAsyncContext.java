@@ -0,0 +1,134 @@
+package com.paymend.commons.filter;
+
+import java.io.IOException;
+
+import com.paymend.commons.context.CorrelationContext;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+/**
+ * {@link AsyncContext} that binds the request-id around {@link #start started} tasks and added listeners,
+ * which the container runs on threads of its own.
+ */
+class CorrelatedAsyncContext implements AsyncContext {
+
+    private final AsyncContext delegate;
+    private final String requestId;
+
+    CorrelatedAsyncContext(AsyncContext delegate, String requestId) {
+        this.delegate = delegate;
+        this.requestId = requestId;
+    }
+
+    @Override
+    public void start(Runnable run) {
+        delegate.start(() -> CorrelationContext.run(requestId, run));
+    }
+
+    @Override
+    public void addListener(AsyncListener listener) {
+        delegate.addListener(new CorrelatedAsyncListener(listener, requestId));
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        delegate.addListener(new CorrelatedAsyncListener(listener, requestId), servletRequest, servletResponse);
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return delegate.getRequest();
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return delegate.getResponse();
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return delegate.hasOriginalRequestAndResponse();
+    }
+
+    @Override
+    public void dispatch() {
+        delegate.dispatch();
+    }
+
+    @Override
+    public void dispatch(String path) {
+        delegate.dispatch(path);
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        delegate.dispatch(context, path);
+    }
+
+    @Override
+    public void complete() {
+        delegate.complete();
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        return delegate.createListener(clazz);
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        delegate.setTimeout(timeout);
+    }
+
+    @Override
+    public long getTimeout() {
+        return delegate.getTimeout();
+    }
+
+    private record CorrelatedAsyncListener(AsyncListener delegate, String requestId) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            notify(() -> delegate.onComplete(event));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            notify(() -> delegate.onTimeout(event));
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            notify(() -> delegate.onError(event));
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException {
+            notify(() -> delegate.onStartAsync(event));
+        }
+
+        private void notify(Notification notification) throws IOException {
+            try {
+                CorrelationContext.call(requestId, () -> {
+                    notification.run();
+                    return null;
+                });
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Notification {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.paymend.commons.filter;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Hands out {@link CorrelatedAsyncContext}s, so async work started through the request keeps its request-id.
+ */
+class CorrelatedHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final String requestId;
+
+    CorrelatedHttpServletRequest(HttpServletRequest request, String requestId) {
+        super(request);
+        this.requestId = requestId;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        return new CorrelatedAsyncContext(super.startAsync(), requestId);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        return new CorrelatedAsyncContext(super.startAsync(servletRequest, servletResponse), requestId);
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        AsyncContext asyncContext = super.getAsyncContext();
+        return asyncContext == null || asyncContext instanceof CorrelatedAsyncContext
+                ? asyncContext
+                : new CorrelatedAsyncContext(asyncContext, requestId);
+    }
+}
@@ -4,41 +4,75 @@ import java.io.IOException;
 
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.paymend.commons.context.CorrelationContext;
 
-import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Binds the incoming {@code request-id} header in {@link CorrelationContext} while the request is processed.
+ * <p>
+ * The request-id is kept as request attribute {@link #REQUEST_ID_ATTRIBUTE}, so async processing keeps it
+ * until the async cycle completes: the filter also runs on {@code ASYNC} and {@code ERROR} dispatches and
+ * binds it again, and tasks started with {@code AsyncContext.start} and {@code AsyncListener}s added to the
+ * request's {@code AsyncContext} run with it bound. Each container thread is cleared when it leaves the filter,
+ * also when it only started async processing.
+ * </p>
+ */
 @Component
 @Order(1)
 @Slf4j
-public class CorrelationFilter implements Filter {
+public class CorrelationFilter extends OncePerRequestFilter {
 
     public static final String REQUEST_ID_HEADER = "request-id";
+    public static final String REQUEST_ID_ATTRIBUTE = CorrelationFilter.class.getName() + ".requestId";
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
-            throws IOException, ServletException {
-        
-        if (request instanceof HttpServletRequest httpRequest) {
-            String requestId = httpRequest.getHeader(REQUEST_ID_HEADER);
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        if (requestId == null) {
+            requestId = request.getHeader(REQUEST_ID_HEADER);
             if (requestId != null) {
-                CorrelationContext.setRequestId(requestId);
+                request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
                 log.debug("Set request-id from header: {}", requestId);
             }
         }
+        HttpServletRequest correlatedRequest = requestId != null
+                ? new CorrelatedHttpServletRequest(request, requestId)
+                : request;
 
         try {
-            chain.doFilter(request, response);
+            CorrelationContext.call(requestId, () -> {
+                chain.doFilter(correlatedRequest, response);
+                return null;
+            });
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
         } finally {
-            // Always clear ThreadLocal to prevent memory leaks
+            // Drop anything set with CorrelationContext.setRequestId during the request, so pooled threads start clean
             CorrelationContext.clear();
+            if (isAsyncStarted(request)) {
+                log.trace("Request [{}] continues asynchronously", requestId);
+            }
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package com.paymend.commons.interceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.client.RequestHedger;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.resilience.AdaptiveConcurrencyLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits concurrent attempts per downstream client with an {@link AdaptiveConcurrencyLimiter}.
+ * Calls over the limit wait up to {@code maxWaitDuration} and are then rejected with
+ * {@link CallNotPermittedException}. The time spent waiting for a slot is published per client, named by the
+ * {@link PaymentMetrics} {@code client} tag so hosts past its limit share the {@code OTHER} limiter.
+ * Cancelled hedges release their slot without backing the limit off.
+ */
+@Slf4j
+public class AdaptiveConcurrencyInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private final ClientNameResolver clientNameResolver;
+    private final PaymentMetrics paymentMetrics;
+    private final RestTemplateConfigProperties.ConcurrencyLimit concurrencyLimitConfig;
+    private final Map<String, ClientLimiter> limiters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public AdaptiveConcurrencyInterceptor(ClientNameResolver clientNameResolver, PaymentMetrics paymentMetrics,
+            RestTemplateConfigProperties.ConcurrencyLimit concurrencyLimitConfig) {
+        this.clientNameResolver = clientNameResolver;
+        this.paymentMetrics = paymentMetrics;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        String clientName = paymentMetrics.clientTag(clientNameResolver.resolve(request.getURI()));
+        ClientLimiter client = limiters.computeIfAbsent(clientName, this::createClientLimiter);
+        AdaptiveConcurrencyLimiter limiter = client.limiter;
+
+        long queued = System.nanoTime();
+        boolean acquired = limiter.tryAcquire();
+        long start = System.nanoTime();
+        client.recordQueueTime(start - queued);
+
+        if (!acquired) {
+            client.recordRejection();
+            log.warn("Concurrency limit [{}] of {} reached, rejecting {} {}",
+                    clientName, limiter.getLimit(), request.getMethod(), request.getURI());
+            throw new CallNotPermittedException("Concurrency limit reached for client " + clientName);
+        }
+
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getStatusCode().is5xxServerError()) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            if (RequestHedger.isCancelledHedge()) {
+                limiter.onCancelled();
+            } else {
+                limiter.onDropped();
+            }
+            throw e;
+        }
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter(String clientName) {
+        return limiters.computeIfAbsent(paymentMetrics.clientTag(clientName), this::createClientLimiter).limiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        limiters.values().forEach(client -> client.bindTo(registry));
+    }
+
+    private ClientLimiter createClientLimiter(String clientName) {
+        ClientLimiter client = new ClientLimiter(paymentMetrics.getServiceName(), clientName,
+                new AdaptiveConcurrencyLimiter(concurrencyLimitConfig));
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            client.bindTo(meterRegistry);
+        }
+        return client;
+    }
+
+    private static final class ClientLimiter {
+
+        private final String serviceName;
+        private final String name;
+        private final AdaptiveConcurrencyLimiter limiter;
+        private volatile Timer queueTime;
+        private volatile Counter rejections;
+
+        ClientLimiter(String serviceName, String name, AdaptiveConcurrencyLimiter limiter) {
+            this.serviceName = serviceName;
+            this.name = name;
+            this.limiter = limiter;
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("custom.stackdriver.http_client.concurrency.limit", limiter,
+                            AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .register(registry);
+            Gauge.builder("custom.stackdriver.http_client.concurrency.in_flight", limiter,
+                            AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Calls currently holding a concurrency slot")
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .register(registry);
+            rejections = Counter.builder("custom.stackdriver.http_client.concurrency.rejected")
+                    .description("Calls rejected by the adaptive concurrency limit")
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .register(registry);
+            queueTime = Timer.builder("custom.stackdriver.http_client.concurrency.queue_time")
+                    .description("Time spent waiting for a concurrency slot")
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .register(registry);
+        }
+
+        void recordQueueTime(long nanos) {
+            Timer timer = queueTime;
+            if (timer != null) {
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void recordRejection() {
+            Counter counter = rejections;
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.paymend.commons.interceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.resilience.Bulkhead;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps concurrent in-flight attempts per downstream client.
+ * Calls over the limit are rejected with {@link CallNotPermittedException} once
+ * {@code maxWaitDuration} has elapsed (immediately by default).
+ * The permit is held until the response is closed, so a body still streaming from the downstream counts
+ * against the limit.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ClientNameResolver clientNameResolver;
+    private final RestTemplateConfigProperties.Bulkhead bulkheadConfig;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        String clientName = clientNameResolver.resolve(request.getURI());
+        Bulkhead bulkhead = bulkheads.computeIfAbsent(clientName,
+                name -> new Bulkhead(bulkheadConfig.getMaxConcurrentCalls(), bulkheadConfig.getMaxWaitDuration()));
+
+        if (!bulkhead.tryAcquire()) {
+            log.warn("Bulkhead [{}] is full ({} concurrent calls), rejecting {} {}",
+                    clientName, bulkheadConfig.getMaxConcurrentCalls(), request.getMethod(), request.getURI());
+            throw new CallNotPermittedException("Bulkhead is full for client " + clientName);
+        }
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException | Error e) {
+            bulkhead.release();
+            throw e;
+        }
+        return new CompletionTrackingResponse(response, bodyFailed -> bulkhead.release());
+    }
+}
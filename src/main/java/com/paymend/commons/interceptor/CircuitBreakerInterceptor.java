@@ -0,0 +1,79 @@
+package com.paymend.commons.interceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.client.RequestHedger;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.resilience.CircuitBreaker;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guards each attempt with the circuit breaker of its downstream client.
+ * Calls are rejected with {@link CallNotPermittedException} while the breaker is open.
+ * I/O errors, exceptions and 5xx responses count as failures, except for cancelled hedges and calls rejected
+ * by an inner bulkhead or concurrency limit.
+ * The outcome is recorded when the response is closed, so slow-call detection covers the body transfer and
+ * a body that fails mid-read counts as a failure.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ClientNameResolver clientNameResolver;
+    private final RestTemplateConfigProperties.CircuitBreaker circuitBreakerConfig;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        String clientName = clientNameResolver.resolve(request.getURI());
+        CircuitBreaker circuitBreaker = getCircuitBreaker(clientName);
+
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.warn("Circuit breaker [{}] is {}, rejecting {} {}",
+                    clientName, circuitBreaker.getState(), request.getMethod(), request.getURI());
+            throw new CallNotPermittedException("Circuit breaker is open for client " + clientName);
+        }
+
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            boolean serverError = response.getStatusCode().is5xxServerError();
+            return new CompletionTrackingResponse(response, bodyFailed -> {
+                long duration = System.nanoTime() - start;
+                if (serverError || bodyFailed) {
+                    circuitBreaker.onError(duration);
+                } else {
+                    circuitBreaker.onSuccess(duration);
+                }
+            });
+        } catch (CallNotPermittedException e) {
+            // Rejected locally by an inner bulkhead or limiter; the downstream never saw the call
+            circuitBreaker.onCancelled();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            if (RequestHedger.isCancelledHedge()) {
+                circuitBreaker.onCancelled();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker(String clientName) {
+        return circuitBreakers.computeIfAbsent(clientName, name -> new CircuitBreaker(name, circuitBreakerConfig));
+    }
+}
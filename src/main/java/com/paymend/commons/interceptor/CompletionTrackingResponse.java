@@ -0,0 +1,98 @@
+package com.paymend.commons.interceptor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Response wrapper that reports the end of an exchange exactly once, when the caller closes the response.
+ * Until then the body may still be streaming from the downstream, so permits and call timings that should
+ * cover the body transfer are settled here rather than when the interceptor chain returns.
+ */
+class CompletionTrackingResponse implements ClientHttpResponse {
+
+    interface Completion {
+
+        /**
+         * @param bodyFailed whether reading the body threw an {@link IOException}
+         */
+        void onComplete(boolean bodyFailed);
+    }
+
+    private final ClientHttpResponse response;
+    private final Completion completion;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private volatile boolean bodyFailed;
+    private InputStream body;
+
+    CompletionTrackingResponse(ClientHttpResponse response, Completion completion) {
+        this.response = response;
+        this.completion = completion;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+        return response.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+        return response.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        if (body == null) {
+            body = new FailureTrackingInputStream(response.getBody());
+        }
+        return body;
+    }
+
+    @Override
+    public void close() {
+        try {
+            response.close();
+        } finally {
+            if (completed.compareAndSet(false, true)) {
+                completion.onComplete(bodyFailed);
+            }
+        }
+    }
+
+    private class FailureTrackingInputStream extends FilterInputStream {
+
+        FailureTrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                bodyFailed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return super.read(b, off, len);
+            } catch (IOException e) {
+                bodyFailed = true;
+                throw e;
+            }
+        }
+    }
+}
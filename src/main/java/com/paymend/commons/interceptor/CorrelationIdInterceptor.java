@@ -1,7 +1,6 @@
 package com.paymend.commons.interceptor;
 
 import java.io.IOException;
-import java.util.UUID;
 
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
@@ -10,6 +9,8 @@ import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.StringUtils;
 
 import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.context.RequestIdGenerator;
+import com.paymend.commons.context.SortableRequestIdGenerator;
 import com.paymend.commons.config.RestTemplateConfigProperties;
 
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,11 @@ import lombok.extern.slf4j.Slf4j;
 public class CorrelationIdInterceptor implements ClientHttpRequestInterceptor {
 
     private final RestTemplateConfigProperties.Correlation correlationConfig;
+    private final RequestIdGenerator requestIdGenerator;
+
+    public CorrelationIdInterceptor(RestTemplateConfigProperties.Correlation correlationConfig) {
+        this(correlationConfig, new SortableRequestIdGenerator());
+    }
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body,
@@ -69,9 +75,7 @@ public class CorrelationIdInterceptor implements ClientHttpRequestInterceptor {
         return fallbackRequestId;
     }
 
-    private String generateRequestId() {
-        String uuid = UUID.randomUUID().toString().replace("-", "");
-        int length = Math.min(correlationConfig.getRequestIdLength(), uuid.length());
-        return correlationConfig.getRequestIdPrefix() + uuid.substring(0, length).toUpperCase();
+    public String generateRequestId() {
+        return requestIdGenerator.generate(correlationConfig.getRequestIdPrefix(), correlationConfig.getRequestIdLength());
     }
 }
\ No newline at end of file
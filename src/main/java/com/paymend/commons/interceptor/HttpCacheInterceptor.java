@@ -0,0 +1,267 @@
+package com.paymend.commons.interceptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymend.commons.cache.CachedResponse;
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Private in-memory cache for outbound GET responses following HTTP caching semantics.
+ * <p>
+ * Fresh responses ({@code Cache-Control: max-age} or {@code Expires}) are served without a network
+ * call. Stale responses carrying an {@code ETag} or {@code Last-Modified} are revalidated with
+ * {@code If-None-Match}/{@code If-Modified-Since}, and a {@code 304} refreshes the stored entry.
+ * {@code no-store}, {@code Vary: *} and bodies larger than {@code maxEntrySize} are never stored.
+ * </p>
+ * <p>
+ * Each client gets its own size-bounded Caffeine cache (W-TinyLFU eviction), and the values of
+ * {@code keyHeaders} are part of the key so responses are never shared across credentials.
+ * A successful non-GET call invalidates the entries stored for its URI. Clients are named by the
+ * {@link PaymentMetrics} {@code client} tag, so hosts past its limit share the {@code OTHER} cache.
+ * </p>
+ */
+@Slf4j
+public class HttpCacheInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final String CACHE_NAME = "paymend-http-cache";
+
+    private final ClientNameResolver clientNameResolver;
+    private final PaymentMetrics paymentMetrics;
+    private final RestTemplateConfigProperties.Cache cacheConfig;
+    private final Clock clock;
+    private final Map<String, ClientCache> caches = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public HttpCacheInterceptor(ClientNameResolver clientNameResolver, PaymentMetrics paymentMetrics,
+            RestTemplateConfigProperties.Cache cacheConfig) {
+        this(clientNameResolver, paymentMetrics, cacheConfig, Clock.systemUTC());
+    }
+
+    HttpCacheInterceptor(ClientNameResolver clientNameResolver, PaymentMetrics paymentMetrics,
+            RestTemplateConfigProperties.Cache cacheConfig, Clock clock) {
+        this.clientNameResolver = clientNameResolver;
+        this.paymentMetrics = paymentMetrics;
+        this.cacheConfig = cacheConfig;
+        this.clock = clock;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        String clientName = paymentMetrics.clientTag(clientNameResolver.resolve(request.getURI()));
+        if (request.getMethod() != HttpMethod.GET) {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (!response.getStatusCode().isError()) {
+                invalidate(clientName, request);
+            }
+            return response;
+        }
+
+        HttpHeaders requestHeaders = request.getHeaders();
+        String requestCacheControl = requestHeaders.getCacheControl();
+        if (hasDirective(requestCacheControl, "no-store")
+                || requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || requestHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return execution.execute(request, body);
+        }
+
+        ClientCache clientCache = caches.computeIfAbsent(clientName, this::createClientCache);
+        CacheKey key = keyFor(request);
+        long now = clock.millis();
+
+        CachedResponse cached = clientCache.cache.getIfPresent(key);
+        if (cached != null && !cached.matchesVary(request)) {
+            cached = null;
+        }
+        if (cached != null && cached.isFresh(now) && !hasDirective(requestCacheControl, "no-cache")) {
+            clientCache.hits.increment();
+            log.debug("Cache hit [{}] for GET {}", clientName, request.getURI());
+            return cached.toClientHttpResponse();
+        }
+
+        if (cached != null) {
+            if (cached.getETag() != null) {
+                requestHeaders.setIfNoneMatch(cached.getETag());
+            }
+            if (cached.getLastModified() != -1) {
+                requestHeaders.setIfModifiedSince(cached.getLastModified());
+            }
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            clientCache.revalidated.increment();
+            log.debug("Cache entry revalidated [{}] for GET {}", clientName, request.getURI());
+            CachedResponse refreshed = cached.revalidated(response.getHeaders(), clock.millis());
+            response.close();
+            clientCache.cache.put(key, refreshed);
+            return refreshed.toClientHttpResponse();
+        }
+
+        clientCache.misses.increment();
+        if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK)) {
+            return response;
+        }
+        return store(clientCache, key, request, response);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        caches.values().forEach(clientCache -> clientCache.bindTo(registry));
+    }
+
+    private ClientHttpResponse store(ClientCache clientCache, CacheKey key, HttpRequest request,
+            ClientHttpResponse response) throws IOException {
+
+        int maxEntryBytes = (int) Math.min(Integer.MAX_VALUE - 1, cacheConfig.getMaxEntrySize().toBytes());
+        if (response.getHeaders().getContentLength() > maxEntryBytes) {
+            return response;
+        }
+
+        InputStream in = response.getBody();
+        byte[] prefix = in.readNBytes(maxEntryBytes + 1);
+        if (prefix.length > maxEntryBytes) {
+            return new ReplayedBodyResponse(response, new SequenceInputStream(new ByteArrayInputStream(prefix), in));
+        }
+
+        CachedResponse entry = CachedResponse.of(request, response.getStatusCode(), response.getStatusText(),
+                response.getHeaders(), prefix, clock.millis());
+        if (entry == null) {
+            return new ReplayedBodyResponse(response, new ByteArrayInputStream(prefix));
+        }
+
+        clientCache.cache.put(key, entry);
+        response.close();
+        return entry.toClientHttpResponse();
+    }
+
+    private void invalidate(String clientName, HttpRequest request) {
+        ClientCache clientCache = caches.get(clientName);
+        if (clientCache != null) {
+            String uri = request.getURI().toString();
+            clientCache.cache.asMap().keySet().removeIf(key -> key.uri.equals(uri));
+        }
+    }
+
+    private CacheKey keyFor(HttpRequest request) {
+        List<String> headerValues = cacheConfig.getKeyHeaders().stream()
+                .map(name -> String.valueOf(request.getHeaders().get(name)))
+                .toList();
+        return new CacheKey(request.getURI().toString(), headerValues);
+    }
+
+    private ClientCache createClientCache(String clientName) {
+        DataSize maxSize = cacheConfig.getClientMaxSize().getOrDefault(clientName, cacheConfig.getMaxSize());
+        Cache<CacheKey, CachedResponse> cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((CacheKey key, CachedResponse value) -> value.weight())
+                .recordStats()
+                .build();
+
+        ClientCache clientCache = new ClientCache(paymentMetrics.getServiceName(), clientName, cache, new LongAdder(), new LongAdder(),
+                new LongAdder());
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            clientCache.bindTo(meterRegistry);
+        }
+        return clientCache;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains(directive);
+    }
+
+    private record CacheKey(String uri, List<String> headerValues) {
+    }
+
+    private record ClientCache(String serviceName, String name, Cache<CacheKey, CachedResponse> cache,
+            LongAdder hits, LongAdder misses, LongAdder revalidated) {
+
+        void bindTo(MeterRegistry registry) {
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, "service_name", serviceName, "client", name);
+            bindCounter(registry, "hit", hits);
+            bindCounter(registry, "miss", misses);
+            bindCounter(registry, "revalidated", revalidated);
+        }
+
+        private void bindCounter(MeterRegistry registry, String result, LongAdder adder) {
+            FunctionCounter.builder("custom.stackdriver.http_client.cache.requests", adder, LongAdder::sum)
+                    .description("Outbound GET requests by response cache outcome")
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Response whose body is replaced by a stream that replays the bytes already read.
+     */
+    private static final class ReplayedBodyResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final InputStream body;
+
+        ReplayedBodyResponse(ClientHttpResponse delegate, InputStream body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
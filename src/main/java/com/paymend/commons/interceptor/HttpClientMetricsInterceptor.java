@@ -0,0 +1,77 @@
+package com.paymend.commons.interceptor;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.support.RetrySynchronizationManager;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.metrics.PaymentMetrics;
+
+/**
+ * Instruments every attempt of an outbound call per downstream client, as resolved by the
+ * {@link ClientNameResolver} ({@code paymend.http-client.client-names}).
+ * <p>
+ * Requests, latency and errors go to the {@link PaymentMetrics} HTTP client meters. Responses are counted
+ * in {@code custom.stackdriver.http_client.responses} by status class and attempt number, the latter
+ * taken from the {@code RetryTemplate} context, and attempts in progress are published as
+ * {@code custom.stackdriver.http_client.in_flight}; both are {@link PaymentMetrics} meters too, shared with
+ * the {@code WebClient} filters. Request and response sizes are published by the
+ * {@link HttpLoggingInterceptor}. Client names are bounded by the {@code paymend.metrics.tag-limits.client}
+ * limit of {@link PaymentMetrics}.
+ * </p>
+ */
+public class HttpClientMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ClientNameResolver clientNameResolver;
+    private final PaymentMetrics paymentMetrics;
+
+    public HttpClientMetricsInterceptor(ClientNameResolver clientNameResolver, PaymentMetrics paymentMetrics) {
+        this.clientNameResolver = clientNameResolver;
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        String clientName = paymentMetrics.clientTag(clientNameResolver.resolve(request.getURI()));
+        AtomicInteger inFlight = paymentMetrics.httpClientInFlight(clientName);
+        int attempt = currentAttempt();
+
+        paymentMetrics.incrementHttpClientRequestCounter(clientName);
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int status = response.getStatusCode().value();
+            paymentMetrics.recordHttpClientResponseNanos(clientName, System.nanoTime() - start);
+            paymentMetrics.incrementHttpClientResponseCounter(clientName, status / 100, attempt);
+            if (status >= 500) {
+                paymentMetrics.incrementHttpClientErrorCounter(clientName, "server_error");
+            } else if (status >= 400) {
+                paymentMetrics.incrementHttpClientErrorCounter(clientName, "client_error");
+            }
+            return response;
+        } catch (IOException e) {
+            paymentMetrics.recordHttpClientResponseNanos(clientName, System.nanoTime() - start);
+            paymentMetrics.incrementHttpClientResponseCounter(clientName, 0, attempt);
+            paymentMetrics.incrementHttpClientErrorCounter(clientName,
+                    e instanceof SocketTimeoutException ? "timeout" : "io_error");
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static int currentAttempt() {
+        RetryContext context = RetrySynchronizationManager.getContext();
+        return context == null ? 1 : context.getRetryCount() + 1;
+    }
+}
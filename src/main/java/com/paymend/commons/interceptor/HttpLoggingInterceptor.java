@@ -0,0 +1,309 @@
+package com.paymend.commons.interceptor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging;
+import com.paymend.commons.exception.RetryableHttpException;
+import com.paymend.commons.logging.BodySizeMetrics;
+import com.paymend.commons.logging.BodySizeMetrics.BodySizes;
+import com.paymend.commons.logging.LogArguments;
+import com.paymend.commons.logging.LogDecision;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
+import com.paymend.commons.metrics.PaymentMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs outbound RestTemplate traffic.
+ * <p>
+ * In {@code BUFFERED} mode the request factory is expected to buffer responses, so a bounded prefix of
+ * the body is read for logging and the same response is handed back to the caller. In {@code STREAMING}
+ * mode the response body is never buffered: a bounded prefix is copied while the caller reads the stream,
+ * and logged when the stream is exhausted or closed. Either way the caller gets the full body, and logged
+ * bodies longer than {@code max-request-body-bytes} / {@code max-response-body-bytes} end in a truncation
+ * marker with their full length.
+ * </p>
+ * <p>
+ * What is logged per call follows the {@link LoggingPolicyResolver logging policy} of its client and path.
+ * Sensitive request and response header values are masked by the {@link HeaderMasker}, and sensitive
+ * fields of logged JSON bodies are redacted by the {@link JsonBodyRedactor}.
+ * </p>
+ * <p>
+ * Body sizes are published per client and direction as {@code custom.stackdriver.http_client.body.size}.
+ * Response sizes are counted when the body is logged and taken from {@code Content-Length} otherwise.
+ * </p>
+ */
+@Slf4j
+public class HttpLoggingInterceptor implements ClientHttpRequestInterceptor, MeterBinder {
+
+    private static final String RESPONSE_FORMAT = "[RestTemplate Response] Status code: {}\nHeaders:\n{}";
+    private static final String RESPONSE_WITH_BODY_FORMAT = RESPONSE_FORMAT + "Body:\n{}";
+
+    private final Logging loggingConfig;
+    private final TrafficLogger trafficLogger;
+    private final LoggingPolicyResolver loggingPolicyResolver;
+    private final ClientNameResolver clientNameResolver;
+    private final HeaderMasker headerMasker;
+    private final JsonBodyRedactor jsonBodyRedactor;
+    private final Set<HttpStatusCode> retryableStatusCodes;
+    private final BodySizeMetrics bodySizeMetrics;
+
+    public HttpLoggingInterceptor(RestTemplateConfigProperties properties, TrafficLogger trafficLogger,
+            LoggingPolicyResolver loggingPolicyResolver, ClientNameResolver clientNameResolver,
+            HeaderMasker headerMasker, JsonBodyRedactor jsonBodyRedactor, PaymentMetrics paymentMetrics) {
+        this.loggingConfig = properties.getLogging();
+        this.trafficLogger = trafficLogger;
+        this.loggingPolicyResolver = loggingPolicyResolver;
+        this.clientNameResolver = clientNameResolver;
+        this.headerMasker = headerMasker;
+        this.jsonBodyRedactor = jsonBodyRedactor;
+        this.bodySizeMetrics = new BodySizeMetrics(paymentMetrics);
+        this.retryableStatusCodes = properties.getRetry().getRetryableStatusCodes().stream()
+                .map(HttpStatusCode::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        BodySizes sizes = bodySizeMetrics.forClient(clientNameResolver.resolve(request.getURI()));
+        sizes.recordRequest(body.length);
+
+        LogDecision decision = loggingPolicyResolver.decide(request.getURI());
+        if (decision.isOff()) {
+            ClientHttpResponse response = checkRetryable(execution.execute(request, body));
+            sizes.recordResponse(response.getHeaders().getContentLength());
+            return response;
+        }
+
+        trafficLogger.info(log, "[RestTemplate Request] {} {}", request.getMethod(), request.getURI());
+        trafficLogger.info(log, "[RestTemplate Request] Headers: {}", LogArguments.headers(request.getHeaders(), headerMasker));
+        if (decision.logsBodies()) {
+            logRequestBody(decision, body);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            if (decision.isDeferred()) {
+                logRequestBody(decision, body);
+            }
+            throw e;
+        }
+
+        // Bodies held back by ON_ERROR are only written once the call turns out to be failed or slow
+        boolean logBodies = decision.logsBodies();
+        if (decision.isDeferred()
+                && decision.isFailure(response.getStatusCode().isError(), System.nanoTime() - start)) {
+            logRequestBody(decision, body);
+            logBodies = true;
+        }
+
+        int statusCode = response.getStatusCode().value();
+        Object headerLines = LogArguments.headerLines(response.getHeaders(), headerMasker);
+        int limit = Math.max(0, decision.maxResponseBodyBytes());
+        boolean retryable = retryableStatusCodes.contains(response.getStatusCode());
+
+        if (!logBodies) {
+            trafficLogger.info(log, RESPONSE_FORMAT, statusCode, headerLines);
+            sizes.recordResponse(response.getHeaders().getContentLength());
+        } else if (isStreaming() && !retryable) {
+            trafficLogger.info(log, RESPONSE_FORMAT, statusCode, headerLines);
+            return new StreamLoggingClientHttpResponse(response, limit, sizes);
+        } else {
+            // A retryable response is discarded below, so its body is read here even in STREAMING mode
+            logBufferedResponse(response, statusCode, headerLines, limit, sizes);
+        }
+        return checkRetryable(response);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bodySizeMetrics.bindTo(registry);
+    }
+
+    private void logBufferedResponse(ClientHttpResponse response, int statusCode, Object headerLines,
+            int limit, BodySizes sizes) {
+        // Only the logged prefix is copied; the rest of the buffered body is counted, not read into memory
+        byte[] prefix = null;
+        long totalLength = 0;
+        try {
+            InputStream responseBody = response.getBody();
+            prefix = responseBody.readNBytes(limit);
+            totalLength = prefix.length + responseBody.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            log.warn("Could not read response body for logging: {}", e.getMessage());
+        }
+        if (prefix != null && totalLength > 0) {
+            sizes.recordResponse(totalLength);
+            trafficLogger.info(log, RESPONSE_WITH_BODY_FORMAT, statusCode, headerLines,
+                    LogArguments.body(prefix, prefix.length, totalLength, jsonBodyRedactor));
+        } else {
+            trafficLogger.info(log, RESPONSE_FORMAT, statusCode, headerLines);
+        }
+    }
+
+    private ClientHttpResponse checkRetryable(ClientHttpResponse response) throws IOException {
+        if (retryableStatusCodes.contains(response.getStatusCode())) {
+            response.close();
+            throw new RetryableHttpException("Retryable status code: " + response.getStatusCode().value());
+        }
+        return response;
+    }
+
+    private void logRequestBody(LogDecision decision, byte[] body) {
+        if (body == null || body.length == 0) {
+            return;
+        }
+        int length = Math.min(body.length, Math.max(0, decision.maxRequestBodyBytes()));
+        trafficLogger.info(log, "[RestTemplate Request] Body: {}",
+                LogArguments.body(body, length, body.length, jsonBodyRedactor));
+    }
+
+    private boolean isStreaming() {
+        return loggingConfig.getMode() == Logging.Mode.STREAMING;
+    }
+
+    /**
+     * Response wrapper that passes the original body stream through untouched while copying
+     * at most {@code limit} bytes aside for logging.
+     */
+    private class StreamLoggingClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse originalResponse;
+        private final int limit;
+        private final BodySizes sizes;
+        private TeeInputStream body;
+
+        StreamLoggingClientHttpResponse(ClientHttpResponse originalResponse, int limit, BodySizes sizes) {
+            this.originalResponse = originalResponse;
+            this.limit = limit;
+            this.sizes = sizes;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new TeeInputStream(originalResponse.getBody(), limit, sizes,
+                        originalResponse.getHeaders().getContentLength());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return originalResponse.getHeaders();
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return originalResponse.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return originalResponse.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            if (body != null) {
+                body.logCapturedBody(false);
+            }
+            originalResponse.close();
+        }
+    }
+
+    private class TeeInputStream extends FilterInputStream {
+
+        private final byte[] captured;
+        private final BodySizes sizes;
+        private final long contentLength;
+        private int capturedLength;
+        private long totalLength;
+        private boolean logged;
+
+        TeeInputStream(InputStream in, int limit, BodySizes sizes, long contentLength) {
+            super(in);
+            this.captured = new byte[limit];
+            this.sizes = sizes;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                logCapturedBody(true);
+            } else {
+                if (capturedLength < captured.length) {
+                    captured[capturedLength++] = (byte) b;
+                }
+                totalLength++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                logCapturedBody(true);
+            } else {
+                int copy = Math.min(n, captured.length - capturedLength);
+                if (copy > 0) {
+                    System.arraycopy(b, off, captured, capturedLength, copy);
+                    capturedLength += copy;
+                }
+                totalLength += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            logCapturedBody(false);
+            super.close();
+        }
+
+        void logCapturedBody(boolean exhausted) {
+            if (logged) {
+                return;
+            }
+            logged = true;
+            sizes.recordResponse(exhausted ? totalLength : contentLength);
+            if (totalLength == 0) {
+                return;
+            }
+            if (exhausted) {
+                trafficLogger.info(log, "[RestTemplate Response] Body:\n{}",
+                        LogArguments.body(captured, capturedLength, totalLength, jsonBodyRedactor));
+            } else {
+                trafficLogger.info(log, "[RestTemplate Response] Body (stream closed after {} bytes):\n{}",
+                        totalLength, LogArguments.partialBody(captured, capturedLength, jsonBodyRedactor));
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.paymend.commons.interceptor;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.support.RetryTemplate;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.resilience.RequestBudget;
+import com.paymend.commons.resilience.RetryBudgetPolicy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs each outbound call through the {@link RetryTemplate}, bounded by a per-client {@link RequestBudget}.
+ * <p>
+ * Must be the last interceptor registered on the {@code RestTemplate}: every attempt then creates a fresh
+ * request from the request factory. Interceptors that need to observe each attempt (logging, retryable
+ * status detection) are passed in as {@code attemptInterceptors} and run again for every attempt.
+ * Only idempotent methods listed in {@code paymend.http-client.retry.retryable-methods} are retried.
+ * </p>
+ */
+@Slf4j
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+
+    private final RetryTemplate retryTemplate;
+    private final ClientNameResolver clientNameResolver;
+    private final RestTemplateConfigProperties.Retry retryConfig;
+    private final Set<HttpMethod> retryableMethods;
+    private final List<ClientHttpRequestInterceptor> attemptInterceptors;
+    private final Map<String, RequestBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryInterceptor(RetryTemplate retryTemplate, ClientNameResolver clientNameResolver,
+            RestTemplateConfigProperties.Retry retryConfig, List<ClientHttpRequestInterceptor> attemptInterceptors) {
+        this.retryTemplate = retryTemplate;
+        this.clientNameResolver = clientNameResolver;
+        this.retryConfig = retryConfig;
+        this.retryableMethods = retryConfig.getRetryableMethods().stream()
+                .map(HttpMethod::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.attemptInterceptors = List.copyOf(attemptInterceptors);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+            ClientHttpRequestExecution execution) throws IOException {
+
+        if (!retryableMethods.contains(request.getMethod())) {
+            return new AttemptExecution(execution).execute(request, body);
+        }
+
+        RequestBudget budget = retryConfig.getBudget().isEnabled()
+                ? budgets.computeIfAbsent(clientNameResolver.resolve(request.getURI()), this::createBudget)
+                : null;
+        if (budget != null) {
+            budget.recordRequest();
+        }
+
+        return retryTemplate.execute((RetryCallback<ClientHttpResponse, IOException>) context -> {
+            if (context.getRetryCount() > 0) {
+                log.debug("Retrying {} {} (attempt {})", request.getMethod(), request.getURI(), context.getRetryCount() + 1);
+            } else if (budget != null) {
+                context.setAttribute(RetryBudgetPolicy.BUDGET_ATTRIBUTE, budget);
+            }
+            return new AttemptExecution(execution).execute(request, body);
+        });
+    }
+
+    private RequestBudget createBudget(String clientName) {
+        RestTemplateConfigProperties.Retry.Budget config = retryConfig.getBudget();
+        log.debug("Creating retry budget for client {}: {}% of traffic, {} max tokens",
+                clientName, config.getPercent(), config.getMaxTokens());
+        return new RequestBudget(config.getPercent(), config.getMaxTokens());
+    }
+
+    /**
+     * Runs the attempt interceptors and then hands the request to the outer execution,
+     * which creates a new request from the request factory.
+     */
+    private class AttemptExecution implements ClientHttpRequestExecution {
+
+        private final Iterator<ClientHttpRequestInterceptor> iterator = attemptInterceptors.iterator();
+        private final ClientHttpRequestExecution delegate;
+
+        AttemptExecution(ClientHttpRequestExecution delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException {
+            if (iterator.hasNext()) {
+                return iterator.next().intercept(request, body, this);
+            }
+            return delegate.execute(request, body);
+        }
+    }
+}
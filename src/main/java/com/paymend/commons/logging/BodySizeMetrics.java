@@ -0,0 +1,98 @@
+package com.paymend.commons.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.paymend.commons.metrics.PaymentMetrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Sizes of non-empty HTTP bodies per client and direction, published as
+ * {@code custom.stackdriver.http_client.body.size}. The {@code service_name} and {@code client} tags are those of
+ * the {@link PaymentMetrics} HTTP client meters, so client names stay within its tag limit. Clients seen before a
+ * registry is bound are registered when it is.
+ */
+public final class BodySizeMetrics implements MeterBinder {
+
+    private static final double[] BODY_SIZE_BUCKETS = {1 << 10, 8 << 10, 64 << 10, 256 << 10, 1 << 20, 8 << 20};
+
+    private final PaymentMetrics paymentMetrics;
+    private final Map<String, BodySizes> bodySizes = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public BodySizeMetrics(PaymentMetrics paymentMetrics) {
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bodySizes.values().forEach(sizes -> sizes.bindTo(registry));
+    }
+
+    public BodySizes forClient(String clientName) {
+        String clientTag = paymentMetrics.clientTag(clientName);
+        BodySizes sizes = bodySizes.get(clientTag);
+        if (sizes == null) {
+            sizes = bodySizes.computeIfAbsent(clientTag, this::createBodySizes);
+        }
+        return sizes;
+    }
+
+    private BodySizes createBodySizes(String clientName) {
+        BodySizes sizes = new BodySizes(paymentMetrics.getServiceName(), clientName);
+        MeterRegistry meterRegistry = registry;
+        if (meterRegistry != null) {
+            sizes.bindTo(meterRegistry);
+        }
+        return sizes;
+    }
+
+    /**
+     * Body size histograms of one client, registered once a meter registry is bound.
+     */
+    public static final class BodySizes {
+
+        private final String serviceName;
+        private final String name;
+        private volatile DistributionSummary requestSizes;
+        private volatile DistributionSummary responseSizes;
+
+        BodySizes(String serviceName, String name) {
+            this.serviceName = serviceName;
+            this.name = name;
+        }
+
+        void bindTo(MeterRegistry registry) {
+            requestSizes = bodySize("request").register(registry);
+            responseSizes = bodySize("response").register(registry);
+        }
+
+        private DistributionSummary.Builder bodySize(String direction) {
+            return DistributionSummary.builder("custom.stackdriver.http_client.body.size")
+                    .description("Size of non-empty HTTP bodies sent and received")
+                    .baseUnit("bytes")
+                    .serviceLevelObjectives(BODY_SIZE_BUCKETS)
+                    .tag("service_name", serviceName)
+                    .tag("client", name)
+                    .tag("direction", direction);
+        }
+
+        public void recordRequest(long bytes) {
+            record(requestSizes, bytes);
+        }
+
+        public void recordResponse(long bytes) {
+            record(responseSizes, bytes);
+        }
+
+        private static void record(DistributionSummary summary, long bytes) {
+            if (summary != null && bytes > 0) {
+                summary.record(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.paymend.commons.logging;
+
+import org.springframework.http.HttpHeaders;
+
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
+
+/**
+ * Log arguments that snapshot their data cheaply and defer rendering until {@code toString()},
+ * which runs on the traffic log writer when logging is asynchronous.
+ */
+public final class LogArguments {
+
+    private LogArguments() {
+    }
+
+    /**
+     * Body {@code bytes[0, length)} with sensitive JSON fields redacted. The array is referenced, not copied,
+     * and must not be modified afterwards.
+     */
+    public static Object body(byte[] bytes, int length, JsonBodyRedactor redactor) {
+        return body(bytes, length, length, redactor);
+    }
+
+    /**
+     * Like {@link #body(byte[], int, JsonBodyRedactor)} for the first {@code length} bytes of a body of
+     * {@code totalLength} bytes; a shorter prefix is followed by a truncation marker with the full length.
+     */
+    public static Object body(byte[] bytes, int length, long totalLength, JsonBodyRedactor redactor) {
+        return body(bytes, length, totalLength, totalLength > length, redactor);
+    }
+
+    /**
+     * Like {@link #body(byte[], int, JsonBodyRedactor)} for a body whose end was never read, so the redactor
+     * treats it as cut off.
+     */
+    public static Object partialBody(byte[] bytes, int length, JsonBodyRedactor redactor) {
+        return body(bytes, length, length, true, redactor);
+    }
+
+    private static Object body(byte[] bytes, int length, long totalLength, boolean truncated,
+            JsonBodyRedactor redactor) {
+        return new Object() {
+            @Override
+            public String toString() {
+                String text = redactor.redact(bytes, 0, length, truncated);
+                return totalLength > length
+                        ? text + " [truncated: " + length + " of " + totalLength + " bytes]"
+                        : text;
+            }
+        };
+    }
+
+    /**
+     * Headers rendered one {@code name: value} per line, masked and copied at call time.
+     */
+    public static Object headerLines(HttpHeaders headers, HeaderMasker headerMasker) {
+        String[] pairs = snapshot(headers, headerMasker);
+        return new Object() {
+            @Override
+            public String toString() {
+                StringBuilder sb = new StringBuilder(pairs.length * 16);
+                for (int i = 0; i < pairs.length; i += 2) {
+                    sb.append(pairs[i]).append(": ").append(pairs[i + 1]).append('\n');
+                }
+                return sb.toString();
+            }
+        };
+    }
+
+    /**
+     * Headers rendered like {@link HttpHeaders#toString()}, masked and copied at call time.
+     */
+    public static Object headers(HttpHeaders headers, HeaderMasker headerMasker) {
+        HttpHeaders copy = headerMasker.maskedCopy(headers);
+        return new Object() {
+            @Override
+            public String toString() {
+                return copy.toString();
+            }
+        };
+    }
+
+    private static String[] snapshot(HttpHeaders headers, HeaderMasker headerMasker) {
+        int count = 0;
+        for (var values : headers.values()) {
+            count += values.size();
+        }
+        String[] pairs = new String[count * 2];
+        int i = 0;
+        for (var entry : headers.entrySet()) {
+            boolean sensitive = headerMasker.isSensitive(entry.getKey());
+            for (String value : entry.getValue()) {
+                pairs[i++] = entry.getKey();
+                pairs[i++] = sensitive ? HeaderMasker.MASK : value;
+            }
+        }
+        return pairs;
+    }
+}
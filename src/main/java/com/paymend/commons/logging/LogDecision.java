@@ -0,0 +1,35 @@
+package com.paymend.commons.logging;
+
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy.Level;
+
+/**
+ * What to log for one call. Sampling has already been applied, so the level is never {@code SAMPLED}.
+ * Logged bodies are cut to {@code maxRequestBodyBytes} and {@code maxResponseBodyBytes}.
+ */
+public record LogDecision(Level level, long slowThresholdNanos, int maxRequestBodyBytes, int maxResponseBodyBytes) {
+
+    public boolean isOff() {
+        return level == Level.OFF;
+    }
+
+    /**
+     * Whether bodies are logged regardless of the outcome.
+     */
+    public boolean logsBodies() {
+        return level == Level.BODIES;
+    }
+
+    /**
+     * Whether bodies are held back until the outcome of the call is known.
+     */
+    public boolean isDeferred() {
+        return level == Level.ON_ERROR;
+    }
+
+    /**
+     * Whether a deferred call with this outcome should have its bodies logged.
+     */
+    public boolean isFailure(boolean error, long elapsedNanos) {
+        return error || elapsedNanos > slowThresholdNanos;
+    }
+}
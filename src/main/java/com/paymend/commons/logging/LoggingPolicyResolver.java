@@ -0,0 +1,104 @@
+package com.paymend.commons.logging;
+
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.PathPolicy;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy.Level;
+import com.paymend.commons.context.CorrelationContext;
+
+/**
+ * Resolves the traffic logging policy of a call: the first matching path policy, else the client's
+ * policy, else the default {@code paymend.http-client.logging.policy}.
+ * <p>
+ * {@code SAMPLED} is decided from the correlation request-id when there is one, so the service and
+ * interceptor log lines of a sampled call are kept or skipped together.
+ * </p>
+ */
+@Component
+public class LoggingPolicyResolver {
+
+    private static final int SAMPLE_SCALE = 10_000;
+
+    private final Logging loggingConfig;
+    private final ClientNameResolver clientNameResolver;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public LoggingPolicyResolver(RestTemplateConfigProperties properties, ClientNameResolver clientNameResolver) {
+        this.loggingConfig = properties.getLogging();
+        this.clientNameResolver = clientNameResolver;
+    }
+
+    /**
+     * Decides for a URI string, falling back to the default policy when it is not a valid URI
+     * (e.g. an unexpanded URI template).
+     */
+    public LogDecision decide(String uri) {
+        if (uri == null) {
+            return decide(loggingConfig.getPolicy(), CorrelationContext.getRequestId());
+        }
+        try {
+            return decide(URI.create(uri));
+        } catch (IllegalArgumentException e) {
+            return decide(loggingConfig.getPolicy(), CorrelationContext.getRequestId());
+        }
+    }
+
+    public LogDecision decide(URI uri) {
+        return decide(uri, CorrelationContext.getRequestId());
+    }
+
+    /**
+     * Decides with the given request-id instead of the one in {@link CorrelationContext}, for callers
+     * that carry it elsewhere, such as the Reactor context.
+     */
+    public LogDecision decide(URI uri, String requestId) {
+        return decide(resolve(uri), requestId);
+    }
+
+    private LogDecision decide(Policy policy, String requestId) {
+        Level level = policy.getLevel();
+        if (level == Level.SAMPLED) {
+            level = isSampled(policy.getSamplePercent(), requestId) ? Level.BODIES : Level.HEADERS;
+        }
+        return new LogDecision(level, policy.getSlowThreshold().toNanos(),
+                loggingConfig.getMaxRequestBodyBytes(), loggingConfig.getMaxResponseBodyBytes());
+    }
+
+    Policy resolve(URI uri) {
+        String clientName = clientNameResolver.resolve(uri);
+        if (!loggingConfig.getPaths().isEmpty()) {
+            String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+            for (PathPolicy pathPolicy : loggingConfig.getPaths()) {
+                if ((pathPolicy.getClient() == null || pathPolicy.getClient().equals(clientName))
+                        && pathPolicy.getPattern() != null
+                        && pathMatcher.match(pathPolicy.getPattern(), path)) {
+                    return pathPolicy;
+                }
+            }
+        }
+        Policy clientPolicy = loggingConfig.getClients().get(clientName);
+        return clientPolicy != null ? clientPolicy : loggingConfig.getPolicy();
+    }
+
+    private static boolean isSampled(double percent, String requestId) {
+        if (percent >= 100) {
+            return true;
+        }
+        if (percent <= 0) {
+            return false;
+        }
+        int bucket = requestId != null
+                ? Math.floorMod(requestId.hashCode(), SAMPLE_SCALE)
+                : ThreadLocalRandom.current().nextInt(SAMPLE_SCALE);
+        return bucket < percent * (SAMPLE_SCALE / 100);
+    }
+}
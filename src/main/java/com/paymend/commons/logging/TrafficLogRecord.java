@@ -0,0 +1,14 @@
+package com.paymend.commons.logging;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+/**
+ * An INFO message captured on the request thread and rendered later.
+ * Arguments must be immutable snapshots; see {@link LogArguments}.
+ *
+ * @param mdc the MDC of the request thread, or {@code null} if it was empty
+ */
+record TrafficLogRecord(Logger logger, String format, Object[] arguments, Map<String, String> mdc) {
+}
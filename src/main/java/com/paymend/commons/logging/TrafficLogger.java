@@ -0,0 +1,164 @@
+package com.paymend.commons.logging;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes HTTP traffic log messages, either directly or through a background writer.
+ * <p>
+ * With {@code paymend.http-client.logging.async} enabled, the request thread only captures the
+ * message format, its arguments and the MDC into a bounded lock-free ring buffer; formatting and
+ * appender I/O happen on a single writer thread. When the buffer is full the message is dropped
+ * rather than blocking the caller, and counted in {@code custom.stackdriver.http_client.log.dropped}.
+ * </p>
+ * <p>
+ * The writer backs off from polling to parking when the buffer stays empty, and once the backoff reaches
+ * {@code MAX_IDLE_PARK_NANOS} it parks until a producer wakes it, so an idle service has no timer wakeups.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TrafficLogger implements MeterBinder, DisposableBean {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+    private static final long MIN_IDLE_PARK_NANOS = 1_000;
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpscRingBuffer<TrafficLogRecord> buffer;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private final String serviceName;
+    private volatile boolean running = true;
+    /** Set while the writer is parked without a timeout; producers then unpark it. */
+    private volatile boolean writerSleeping;
+
+    public TrafficLogger(RestTemplateConfigProperties properties, PaymentMetricsProperties metricsProperties) {
+        this.serviceName = metricsProperties.getServiceName();
+        RestTemplateConfigProperties.Logging loggingConfig = properties.getLogging();
+        if (loggingConfig.isAsync()) {
+            this.buffer = new MpscRingBuffer<>(loggingConfig.getBufferSize());
+            this.writer = Thread.ofPlatform()
+                    .name("paymend-traffic-log")
+                    .daemon(true)
+                    .start(this::drainLoop);
+        } else {
+            this.buffer = null;
+            this.writer = null;
+        }
+    }
+
+    public boolean isAsync() {
+        return buffer != null;
+    }
+
+    /**
+     * Logs at INFO. Arguments are rendered with {@code toString()} later, so they must not change
+     * after this call; use {@link LogArguments} for byte arrays and headers.
+     */
+    public void info(Logger logger, String format, Object... arguments) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        if (buffer == null) {
+            logger.info(format, arguments);
+            return;
+        }
+        if (!buffer.offer(new TrafficLogRecord(logger, format, arguments, MDC.getCopyOfContextMap()))) {
+            dropped.increment();
+        } else if (writerSleeping) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("custom.stackdriver.http_client.log.dropped", dropped, LongAdder::sum)
+                .description("HTTP traffic log messages dropped because the async log buffer was full")
+                .tag("service_name", serviceName)
+                .register(registry);
+        if (buffer != null) {
+            Gauge.builder("custom.stackdriver.http_client.log.buffer_capacity", buffer, MpscRingBuffer::capacity)
+                    .description("Capacity of the async HTTP traffic log buffer")
+                    .tag("service_name", serviceName)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(SHUTDOWN_TIMEOUT.toMillis());
+    }
+
+    private void drainLoop() {
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (running) {
+            if (drain() > 0) {
+                idleParkNanos = MIN_IDLE_PARK_NANOS;
+            } else if (idleParkNanos < MAX_IDLE_PARK_NANOS) {
+                LockSupport.parkNanos(idleParkNanos);
+                idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+            } else {
+                // Publish the flag before the last look at the buffer, so a producer either sees it or is drained here
+                writerSleeping = true;
+                if (drain() == 0 && running) {
+                    LockSupport.park(this);
+                }
+                writerSleeping = false;
+                idleParkNanos = MIN_IDLE_PARK_NANOS;
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int written = 0;
+        TrafficLogRecord record;
+        while ((record = buffer.poll()) != null) {
+            write(record);
+            written++;
+        }
+        return written;
+    }
+
+    private static void write(TrafficLogRecord record) {
+        Map<String, String> mdc = record.mdc();
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        }
+        try {
+            record.logger().info(record.format(), record.arguments());
+        } catch (RuntimeException e) {
+            log.warn("Failed to write traffic log message: {}", e.toString());
+        } finally {
+            if (mdc != null) {
+                MDC.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.paymend.commons.masking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.paymend.commons.config.MaskingConfigProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Masks the values of sensitive headers ({@code paymend.masking.sensitive-headers}) for logging.
+ * Lookups go through the precompiled {@link HeaderNameSet} of the current configuration, so they
+ * pick up rebound properties without per-call allocation.
+ */
+@Component
+@RequiredArgsConstructor
+public class HeaderMasker {
+
+    public static final String MASK = "*** MASKED ***";
+
+    private static final List<String> MASKED_VALUES = List.of(MASK);
+
+    private final MaskingConfigProperties maskingConfigProperties;
+
+    public boolean isSensitive(String headerName) {
+        return maskingConfigProperties.getSensitiveHeaderNames().contains(headerName);
+    }
+
+    public String mask(String headerName, String headerValue) {
+        return isSensitive(headerName) ? MASK : headerValue;
+    }
+
+    /**
+     * Returns a copy of the headers with sensitive values replaced by {@link #MASK}.
+     */
+    public HttpHeaders maskedCopy(HttpHeaders headers) {
+        HeaderNameSet sensitive = maskingConfigProperties.getSensitiveHeaderNames();
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) ->
+                copy.put(name, sensitive.contains(name) ? MASKED_VALUES : new ArrayList<>(values)));
+        return copy;
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymend.commons.masking;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Immutable set of header names with case-insensitive, allocation-free lookups.
+ * <p>
+ * Names are lower-cased once when the set is built and stored in an open-addressing table.
+ * {@link #contains(String)} hashes and compares the candidate in place, ignoring case and
+ * surrounding whitespace, so no lower-cased or trimmed copy is created per lookup.
+ * </p>
+ */
+public final class HeaderNameSet {
+
+    private static final HeaderNameSet EMPTY = new HeaderNameSet(Set.of());
+
+    private final String[] table;
+    private final int mask;
+    private final Set<String> names;
+
+    private HeaderNameSet(Set<String> names) {
+        this.names = Set.copyOf(names);
+        int size = Integer.highestOneBit(Math.max(4, names.size() * 4) - 1) << 1;
+        this.table = new String[size];
+        this.mask = size - 1;
+        for (String name : names) {
+            int index = hash(name, 0, name.length()) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = name;
+        }
+    }
+
+    public static HeaderNameSet of(Collection<String> headerNames) {
+        if (headerNames == null || headerNames.isEmpty()) {
+            return EMPTY;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String name : headerNames) {
+            if (name != null && !name.isBlank()) {
+                normalized.add(name.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized.isEmpty() ? EMPTY : new HeaderNameSet(normalized);
+    }
+
+    public boolean contains(String headerName) {
+        if (headerName == null || names.isEmpty()) {
+            return false;
+        }
+        int start = 0;
+        int end = headerName.length();
+        while (start < end && headerName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && headerName.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+
+        int index = hash(headerName, start, end) & mask;
+        String candidate;
+        while ((candidate = table[index]) != null) {
+            if (candidate.length() == length && headerName.regionMatches(true, start, candidate, 0, length)) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * The normalized (trimmed, lower-case) names.
+     */
+    public Set<String> names() {
+        return names;
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + toLowerCase(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static char toLowerCase(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+}
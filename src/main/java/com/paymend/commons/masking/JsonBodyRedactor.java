@@ -0,0 +1,151 @@
+package com.paymend.commons.masking;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.paymend.commons.config.MaskingConfigProperties;
+import com.paymend.commons.masking.JsonFieldMatcher.Node;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Redacts sensitive fields ({@code paymend.masking.sensitive-fields}) from JSON bodies before they are logged.
+ * <p>
+ * The body is copied token by token from a streaming parser to a generator, so no tree is built and
+ * the cost is linear in the body size. The value of a matching field is replaced by {@link HeaderMasker#MASK};
+ * if it is an object or array, the whole subtree is skipped. If the JSON is truncated or malformed, only
+ * the tokens before the error are kept, followed by {@link #TRUNCATED}, so nothing after the error can leak.
+ * </p>
+ * <p>
+ * As a fallback for what field names cannot reach, such as form-encoded or XML bodies and free-text JSON
+ * values, the result then goes through the {@link SensitiveDataScanner} ({@code paymend.masking.scan-bodies}).
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonBodyRedactor {
+
+    public static final String TRUNCATED = "...";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .build();
+
+    private final MaskingConfigProperties maskingConfigProperties;
+
+    /**
+     * Returns {@code body[offset, offset + length)} as UTF-8 text with sensitive fields redacted.
+     */
+    public String redact(byte[] body, int offset, int length) {
+        return redact(body, offset, length, false);
+    }
+
+    /**
+     * Like {@link #redact(byte[], int, int)} for a range that may have been cut from a longer body, so that a
+     * card number split at its end is still masked.
+     */
+    public String redact(byte[] body, int offset, int length, boolean truncated) {
+        JsonFieldMatcher matcher = maskingConfigProperties.getSensitiveFieldMatcher();
+        boolean redactFields = maskingConfigProperties.isRedactBodies() && !matcher.isEmpty()
+                && looksLikeJson(body, offset, length);
+        boolean scan = maskingConfigProperties.isScanBodies();
+        if (!redactFields && !scan) {
+            return new String(body, offset, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] redacted;
+        boolean complete = true;
+        if (redactFields) {
+            ByteArrayBuilder out = new ByteArrayBuilder(length);
+            complete = copy(body, offset, length, matcher, out);
+            redacted = out.toByteArray();
+        } else {
+            redacted = Arrays.copyOfRange(body, offset, offset + length);
+        }
+        if (scan) {
+            // A JSON number ending the input parses, so a cut body keeps its trailing digits up to the error
+            maskingConfigProperties.getSensitiveDataScanner().mask(redacted, 0, redacted.length, truncated || !complete);
+        }
+        String text = new String(redacted, StandardCharsets.UTF_8);
+        return complete ? text : text + TRUNCATED;
+    }
+
+    private static boolean copy(byte[] body, int offset, int length, JsonFieldMatcher matcher, ByteArrayBuilder out) {
+        Node[] path = new Node[16];
+        int depth = 0;
+        // Trie node of the value that comes next; null once the path has left every configured path
+        Node next = matcher.root();
+
+        // The generator is closed, and so flushed, before an error is handled, keeping every token copied so far
+        try (JsonParser parser = JSON_FACTORY.createParser(body, offset, length);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case FIELD_NAME -> {
+                        String name = parser.currentName();
+                        generator.writeFieldName(name);
+                        Node child = path[depth - 1] == null ? null : path[depth - 1].child(name);
+                        if (matcher.matchesName(name) || (child != null && child.isTerminal())) {
+                            JsonToken value = parser.nextToken();
+                            if (value != null && value.isStructStart()) {
+                                parser.skipChildren();
+                            }
+                            generator.writeString(HeaderMasker.MASK);
+                        } else {
+                            next = child;
+                        }
+                    }
+                    case START_OBJECT, START_ARRAY -> {
+                        if (depth == path.length) {
+                            path = Arrays.copyOf(path, depth * 2);
+                        }
+                        path[depth++] = next;
+                        if (token == JsonToken.START_OBJECT) {
+                            generator.writeStartObject();
+                        } else {
+                            generator.writeStartArray();
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        // Array elements share the array's node; object members are resolved by name
+                        next = depth == 0 ? matcher.root() : path[depth - 1];
+                        if (token == JsonToken.END_OBJECT) {
+                            generator.writeEndObject();
+                        } else {
+                            generator.writeEndArray();
+                        }
+                    }
+                    case VALUE_STRING -> generator.writeString(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> generator.writeNumber(
+                            parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    default -> generator.copyCurrentEvent(parser);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean looksLikeJson(byte[] body, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            byte b = body[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,110 @@
+package com.paymend.commons.masking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of sensitive JSON fields, compiled from plain field names and JSON paths.
+ * <p>
+ * A plain name such as {@code cvv} matches a field of that name at any depth, ignoring case.
+ * A path such as {@code $.card.number} is anchored at the root and matched exactly; arrays are
+ * transparent, so {@code $.items[*].pan} and {@code $.items.pan} are equivalent.
+ * Paths are kept as a trie that {@link JsonBodyRedactor} walks while it streams the tokens.
+ * </p>
+ */
+public final class JsonFieldMatcher {
+
+    private static final JsonFieldMatcher EMPTY = new JsonFieldMatcher(HeaderNameSet.of(List.of()), null, List.of());
+
+    private final HeaderNameSet names;
+    private final Node root;
+    private final List<String> fields;
+
+    private JsonFieldMatcher(HeaderNameSet names, Node root, List<String> fields) {
+        this.names = names;
+        this.root = root;
+        this.fields = fields;
+    }
+
+    public static JsonFieldMatcher of(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> names = new ArrayList<>();
+        Node root = null;
+        for (String field : fields) {
+            if (field == null || field.isBlank()) {
+                continue;
+            }
+            String trimmed = field.trim();
+            if (!trimmed.startsWith("$")) {
+                names.add(trimmed);
+                continue;
+            }
+            List<String> segments = parsePath(trimmed);
+            if (segments.isEmpty()) {
+                throw new IllegalArgumentException("JSON path must name at least one field: " + field);
+            }
+            if (root == null) {
+                root = new Node();
+            }
+            Node node = root;
+            for (String segment : segments) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.terminal = true;
+        }
+        return new JsonFieldMatcher(HeaderNameSet.of(names), root, List.copyOf(fields));
+    }
+
+    public boolean isEmpty() {
+        return names.names().isEmpty() && root == null;
+    }
+
+    /**
+     * The configured field names and paths, as given.
+     */
+    public List<String> fields() {
+        return fields;
+    }
+
+    boolean matchesName(String fieldName) {
+        return names.contains(fieldName);
+    }
+
+    /**
+     * The path trie, or {@code null} when only plain names are configured.
+     */
+    Node root() {
+        return root;
+    }
+
+    private static List<String> parsePath(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.substring(1).split("\\.")) {
+            int bracket = segment.indexOf('[');
+            String name = bracket >= 0 ? segment.substring(0, bracket) : segment;
+            if (!name.isEmpty()) {
+                segments.add(name);
+            }
+        }
+        return segments;
+    }
+
+    static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+        private boolean terminal;
+
+        Node child(String fieldName) {
+            return children.get(fieldName);
+        }
+
+        boolean isTerminal() {
+            return terminal;
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.paymend.commons.masking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Masks card numbers and keyword-tagged secrets in raw payloads (form-encoded, XML, plain text) in one pass.
+ * <p>
+ * A run of 13 to 19 digits that starts with a card network prefix (IIN) and passes the Luhn check is taken
+ * to be a PAN and all but its last four digits are replaced by {@code '*'}. The digits may be grouped with
+ * single spaces or dashes ({@code 4111 1111 1111 1111}), in groups of 3 to 6 digits after a first group of 4.
+ * Digit runs that are the JSON value of a configured non-PAN field, such as {@code "createdAt":1760000000000},
+ * are left alone. When the range was cut from a longer body, a trailing run of 7 or more digits with a card
+ * prefix is masked entirely, as it may be the start of a PAN. Keywords such as {@code password=} or {@code <cvv>} are matched
+ * ignoring ASCII case by an Aho-Corasick automaton compiled to a dense DFA over byte classes, so a byte
+ * costs one table lookup regardless of the number of keywords; the value that follows a keyword is masked
+ * up to the next delimiter ({@code & < > " ' , ;} or whitespace). Bytes that cannot start a match are
+ * skipped with a byte-pair prefilter, and digit runs bypass the automaton unless a keyword contains digits.
+ * Masking happens in place and never changes the length of the payload.
+ * </p>
+ */
+public final class SensitiveDataScanner {
+
+    private static final byte MASK = '*';
+    private static final int MIN_PAN_DIGITS = 13;
+    private static final int MAX_PAN_DIGITS = 19;
+    private static final int VISIBLE_PAN_DIGITS = 4;
+    /** Digits from which a run cut off by truncation may be the start of a PAN. */
+    private static final int MIN_TRUNCATED_PAN_DIGITS = 7;
+    private static final int FIRST_GROUP_DIGITS = 4;
+    private static final int MIN_GROUP_DIGITS = 3;
+    private static final int MAX_GROUP_DIGITS = 6;
+
+    private static final boolean[] DELIMITERS = new boolean[256];
+
+    static {
+        for (char c : "&<>\"',; \t\r\n".toCharArray()) {
+            DELIMITERS[c] = true;
+        }
+    }
+
+    /** Byte to alphabet class; class 0 stands for every byte that occurs in no keyword. */
+    private final int[] byteClasses = new int[256];
+    /**
+     * Complete transition table with failure links folded in. States are row offsets ({@code state * classes}),
+     * so a step is {@code transitions[row + class]}; each entry holds the next row shifted left by one and
+     * whether that state accepts in the low bit.
+     */
+    private final int[] transitions;
+    /**
+     * Byte pairs ({@code first << 8 | second}) that can start a PAN or a keyword. While no match is in
+     * progress, the scanner skips ahead to the next such pair without stepping the automaton.
+     */
+    private final boolean[] startPairs = new boolean[1 << 16];
+    private final boolean[] startBytes = new boolean[256];
+    private final boolean digitsInKeywords;
+    private final List<String> keywords;
+    /** Lower-case JSON field names whose numeric values are never PANs. */
+    private final Set<String> nonPanFields;
+
+    private SensitiveDataScanner(List<byte[]> patterns, List<String> keywords, Set<String> nonPanFields) {
+        this.keywords = keywords;
+        this.nonPanFields = nonPanFields;
+        int classes = 1;
+        for (byte[] pattern : patterns) {
+            for (byte b : pattern) {
+                int unsigned = b & 0xff;
+                if (byteClasses[unsigned] == 0) {
+                    byteClasses[unsigned] = classes++;
+                    if (unsigned >= 'a' && unsigned <= 'z') {
+                        byteClasses[unsigned - ('a' - 'A')] = byteClasses[unsigned];
+                    }
+                }
+            }
+        }
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newRow(classes));
+        terminal.add(false);
+        for (byte[] pattern : patterns) {
+            int state = 0;
+            for (byte b : pattern) {
+                int cls = byteClasses[b & 0xff];
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow(classes));
+                    terminal.add(false);
+                }
+                state = trie.get(state)[cls];
+            }
+            terminal.set(state, true);
+        }
+
+        // Breadth-first failure links, folded into a complete transition table
+        int states = trie.size();
+        int[] next = new int[states * classes];
+        boolean[] accepting = new boolean[states];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classes; cls++) {
+            int child = trie.get(0)[cls];
+            next[cls] = Math.max(child, 0);
+            if (child > 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+            for (int cls = 0; cls < classes; cls++) {
+                int child = trie.get(state)[cls];
+                int fallback = next[failure[state] * classes + cls];
+                if (child < 0) {
+                    next[state * classes + cls] = fallback;
+                } else {
+                    next[state * classes + cls] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        boolean digits = false;
+        for (int b = '0'; b <= '9'; b++) {
+            startBytes[b] = true;
+            digits |= byteClasses[b] != 0;
+            Arrays.fill(startPairs, b << 8, (b + 1) << 8, true);
+        }
+        this.digitsInKeywords = digits;
+        for (int first = 0; first < 256; first++) {
+            int state = trie.get(0)[byteClasses[first]];
+            if (state <= 0) {
+                continue;
+            }
+            startBytes[first] = true;
+            for (int second = 0; second < 256; second++) {
+                if (terminal.get(state) || trie.get(state)[byteClasses[second]] > 0) {
+                    startPairs[first << 8 | second] = true;
+                }
+            }
+        }
+
+        this.transitions = new int[states * classes];
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = (next[i] * classes) << 1 | (accepting[next[i]] ? 1 : 0);
+        }
+    }
+
+    public static SensitiveDataScanner of(Collection<String> keywords) {
+        return of(keywords, List.of());
+    }
+
+    /**
+     * @param nonPanFields JSON field names, matched ignoring case, whose digit values are not masked as PANs
+     */
+    public static SensitiveDataScanner of(Collection<String> keywords, Collection<String> nonPanFields) {
+        Set<String> normalized = normalize(keywords);
+        List<byte[]> patterns = new ArrayList<>(normalized.size());
+        for (String keyword : normalized) {
+            patterns.add(keyword.getBytes(StandardCharsets.UTF_8));
+        }
+        return new SensitiveDataScanner(patterns, List.copyOf(normalized), Set.copyOf(normalize(nonPanFields)));
+    }
+
+    private static Set<String> normalize(Collection<String> values) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    normalized.add(value.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * The normalized (trimmed, lower-case) keywords.
+     */
+    public List<String> keywords() {
+        return keywords;
+    }
+
+    /**
+     * Masks PANs and keyword values in {@code bytes[offset, offset + length)} in place.
+     */
+    public void mask(byte[] bytes, int offset, int length) {
+        mask(bytes, offset, length, false);
+    }
+
+    /**
+     * Like {@link #mask(byte[], int, int)}; if the range was cut from a longer body, a digit run of 7 or more
+     * digits with a card prefix at its end may be the start of a PAN and is masked entirely.
+     */
+    public void mask(byte[] bytes, int offset, int length, boolean truncated) {
+        scan(bytes, offset, length);
+        if (truncated) {
+            maskTrailingRun(bytes, offset, offset + length);
+        }
+    }
+
+    private void scan(byte[] bytes, int offset, int length) {
+        int[] classes = byteClasses;
+        int[] table = transitions;
+        boolean[] pairs = startPairs;
+        int end = offset + length;
+        int last = end - 1;
+        int row = 0;
+        int i = offset;
+
+        while (i < end) {
+            if (row == 0) {
+                while (i < last && !pairs[(bytes[i] & 0xff) << 8 | (bytes[i + 1] & 0xff)]) {
+                    i++;
+                }
+                if (i == last && !startBytes[bytes[i] & 0xff]) {
+                    return;
+                }
+            }
+            int b = bytes[i] & 0xff;
+
+            if (b >= '0' && b <= '9') {
+                int from = i;
+                boolean matched = false;
+                if (digitsInKeywords) {
+                    do {
+                        int step = table[row + classes[bytes[i] & 0xff]];
+                        row = step >>> 1;
+                        i++;
+                        matched = (step & 1) != 0;
+                    } while (!matched && i < end && isDigit(bytes[i]));
+                } else {
+                    // A digit sends the automaton back to its root, so the run needs no stepping
+                    do {
+                        i++;
+                    } while (i < end && isDigit(bytes[i]));
+                    row = 0;
+                }
+                if (!matched && i - from == FIRST_GROUP_DIGITS && i + 1 < end
+                        && isSeparator(bytes[i]) && isDigit(bytes[i + 1])) {
+                    int groupedEnd = groupedRunEnd(bytes, from, end);
+                    if (groupedEnd > 0 && maskPan(bytes, offset, from, groupedEnd)) {
+                        i = groupedEnd;
+                        row = 0;
+                        continue;
+                    }
+                }
+                maskPan(bytes, offset, from, i);
+                if (matched) {
+                    i = maskValue(bytes, i, end);
+                    row = 0;
+                }
+                continue;
+            }
+
+            int step = table[row + classes[b]];
+            row = step >>> 1;
+            i++;
+            if ((step & 1) != 0) {
+                i = maskValue(bytes, i, end);
+                row = 0;
+            }
+        }
+    }
+
+    /**
+     * Masks from {@code from} up to the next delimiter and returns the delimiter's index.
+     */
+    private static int maskValue(byte[] bytes, int from, int end) {
+        int i = from;
+        while (i < end && !DELIMITERS[bytes[i] & 0xff]) {
+            bytes[i++] = MASK;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Masks every digit of the run, possibly grouped, that ends at {@code end} if it could begin a PAN.
+     */
+    private void maskTrailingRun(byte[] bytes, int offset, int end) {
+        int from = end;
+        int digits = 0;
+        while (from > offset) {
+            byte b = bytes[from - 1];
+            if (isDigit(b)) {
+                digits++;
+            } else if (!isSeparator(b) || from == end || from - 1 == offset || !isDigit(bytes[from - 2])) {
+                break;
+            }
+            from--;
+        }
+        if (digits < MIN_TRUNCATED_PAN_DIGITS || digits > MAX_PAN_DIGITS || !hasCardPrefix(bytes, from)
+                || isNonPanField(bytes, offset, from)) {
+            return;
+        }
+        for (int i = from; i < end; i++) {
+            if (isDigit(bytes[i])) {
+                bytes[i] = MASK;
+            }
+        }
+    }
+
+    private static boolean isSeparator(byte b) {
+        return b == ' ' || b == '-';
+    }
+
+    /**
+     * Returns the end of the grouped digit run starting at {@code from}, or {@code -1} if it is not grouped like a
+     * card number: groups of 3 to 6 digits split by single separators, 13 to 19 digits in all.
+     */
+    private static int groupedRunEnd(byte[] bytes, int from, int end) {
+        int i = from;
+        int digits = 0;
+        while (true) {
+            int groupStart = i;
+            while (i < end && isDigit(bytes[i])) {
+                i++;
+            }
+            int group = i - groupStart;
+            if (group < MIN_GROUP_DIGITS || group > MAX_GROUP_DIGITS) {
+                return -1;
+            }
+            digits += group;
+            if (digits > MAX_PAN_DIGITS) {
+                return -1;
+            }
+            if (i + 1 < end && isSeparator(bytes[i]) && isDigit(bytes[i + 1])) {
+                i++;
+            } else {
+                return digits >= MIN_PAN_DIGITS ? i : -1;
+            }
+        }
+    }
+
+    /**
+     * Masks the PAN in {@code bytes[from, to)}, which may contain separators, and returns whether it was one.
+     */
+    private boolean maskPan(byte[] bytes, int offset, int from, int to) {
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            if (isDigit(bytes[i])) {
+                digits++;
+            }
+        }
+        if (digits < MIN_PAN_DIGITS || digits > MAX_PAN_DIGITS || !hasCardPrefix(bytes, from)
+                || !passesLuhn(bytes, from, to) || isNonPanField(bytes, offset, from)) {
+            return false;
+        }
+        int toMask = digits - VISIBLE_PAN_DIGITS;
+        for (int i = from; toMask > 0; i++) {
+            if (isDigit(bytes[i])) {
+                bytes[i] = MASK;
+                toMask--;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the digits at {@code from} begin like a card number of a major network: Visa (4), Mastercard
+     * (51-55, 2221-2720), Mir (2200-2204), Amex and Diners (34, 36-39, 300-305), JCB (3528-3589), and
+     * Discover, UnionPay, Maestro and RuPay (5, 6). Epoch-millisecond timestamps, which start with 1, never do.
+     */
+    static boolean hasCardPrefix(byte[] bytes, int from) {
+        int prefix = 0;
+        for (int i = from, digits = 0; digits < 4; i++) {
+            if (isDigit(bytes[i])) {
+                prefix = prefix * 10 + bytes[i] - '0';
+                digits++;
+            }
+        }
+        return switch (prefix / 1000) {
+            case 4, 5, 6 -> true;
+            case 2 -> (prefix >= 2221 && prefix <= 2720) || (prefix >= 2200 && prefix <= 2204);
+            case 3 -> {
+                int two = prefix / 100;
+                yield two == 34 || two == 36 || two == 37 || two == 38 || two == 39
+                        || (prefix >= 3000 && prefix <= 3059) || (prefix >= 3528 && prefix <= 3589);
+            }
+            default -> false;
+        };
+    }
+
+    /**
+     * Whether the run at {@code from} is the value of a non-PAN JSON field, as in {@code "id": 4111...}
+     * or {@code "id":"4111..."}; only bytes from {@code offset} on are looked at.
+     */
+    private boolean isNonPanField(byte[] bytes, int offset, int from) {
+        if (nonPanFields.isEmpty()) {
+            return false;
+        }
+        int i = from - 1;
+        if (i >= offset && bytes[i] == '"') {
+            i--;
+        }
+        while (i >= offset && (bytes[i] == ' ' || bytes[i] == '\t')) {
+            i--;
+        }
+        if (i < offset || bytes[i] != ':') {
+            return false;
+        }
+        i--;
+        while (i >= offset && (bytes[i] == ' ' || bytes[i] == '\t')) {
+            i--;
+        }
+        if (i < offset || bytes[i] != '"') {
+            return false;
+        }
+        int nameEnd = i;
+        i--;
+        while (i >= offset && bytes[i] != '"') {
+            i--;
+        }
+        if (i < offset) {
+            return false;
+        }
+        String name = new String(bytes, i + 1, nameEnd - i - 1, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+        return nonPanFields.contains(name);
+    }
+
+    /**
+     * Luhn check over the digits of {@code bytes[from, to)}, skipping separators.
+     */
+    static boolean passesLuhn(byte[] bytes, int from, int to) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = to - 1; i >= from; i--) {
+            if (!isDigit(bytes[i])) {
+                continue;
+            }
+            int digit = bytes[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return sum % 10 == 0;
+    }
+
+    private static int[] newRow(int classes) {
+        int[] row = new int[classes];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -1,92 +1,307 @@
 package com.paymend.commons.metrics;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import org.springframework.stereotype.Component;
 
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+/**
+ * Payment and HTTP client meters. Meters with fixed tags are registered at construction; meters per status
+ * code, client and error type are registered on first use and cached, so recording is a map lookup at most
+ * and allocates nothing.
+ * <p>
+ * Latencies are recorded by {@link Timer}s from nanoseconds. Their distribution is published as configured
+ * with {@code paymend.metrics.latency-histogram}: client-side percentiles, SLO buckets, or a log-linear
+ * histogram that can be aggregated across instances.
+ * </p>
+ * <p>
+ * Status codes, client names and error types are bounded by a {@link TagValueLimiter} each
+ * ({@code paymend.metrics.tag-limits}): past the allowed or maximum number of values they are recorded as
+ * {@code OTHER}, counted in {@code custom.stackdriver.metrics.tag_limit_exceeded}.
+ * </p>
+ */
 @Component
 public class PaymentMetrics {
 
+    /** Attempts from this number on share one {@code attempt} tag value. */
+    public static final int MAX_ATTEMPT_TAG = 5;
+    private static final String[] STATUS_CLASSES = {"NONE", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
     private final MeterRegistry registry;
+    private final PaymentMetricsProperties properties;
     private final String serviceName;
 
+    private final Counter paymentCounter;
+    private final Timer evervaultInspectResponseTime;
+    private final Timer totalResponseTime;
+    private final Timer paysightResponseTime;
+
+    private final TagValueLimiter statusCodes;
+    private final TagValueLimiter clientNames;
+    private final TagValueLimiter errorTypes;
+
+    private final Map<String, Counter> transactionCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> httpClientResponseTimes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> httpClientRequestCounters = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Counter>> httpClientErrorCounters = new ConcurrentHashMap<>();
+    /** Response counters by {@code (attempt - 1) * status classes + status class}, registered on first use. */
+    private final Map<String, AtomicReferenceArray<Counter>> httpClientResponseCounters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> httpClientInFlight = new ConcurrentHashMap<>();
+
     public PaymentMetrics(MeterRegistry registry, PaymentMetricsProperties properties) {
         this.registry = registry;
+        this.properties = properties;
         this.serviceName = properties.getServiceName();
-    }
 
-    public void incrementPaymentCounter() {
-        Counter.builder("custom.stackdriver.requests.incoming")
+        this.paymentCounter = Counter.builder("custom.stackdriver.requests.incoming")
                 .description("Number of incoming payment requests")
                 .tag("service_name", serviceName)
-                .register(registry)
-                .increment();
+                .register(registry);
+        this.evervaultInspectResponseTime = responseTime("custom.stackdriver.evervault_inspect_response_time",
+                "Response time of evervault inspect requests");
+        this.totalResponseTime = responseTime("custom.stackdriver.total_response_time",
+                "Total response time of payment requests");
+        this.paysightResponseTime = responseTime("custom.stackdriver.paysight_response_time",
+                "Total response time of payment requests");
+
+        PaymentMetricsProperties.TagLimits tagLimits = properties.getTagLimits();
+        this.statusCodes = tagValueLimiter("statusCode", tagLimits.getStatusCode());
+        this.clientNames = tagValueLimiter("client", tagLimits.getClient());
+        this.errorTypes = tagValueLimiter("error_type", tagLimits.getErrorType());
+    }
+
+    public void incrementPaymentCounter() {
+        paymentCounter.increment();
     }
 
     public void incrementTransactionCounterWithStatus(String statusCode) {
-        Counter.builder("custom.stackdriver.requests.processed")
-                .description("Total number of payment by status code")
-                .tag("service_name", serviceName)
-                .tag("statusCode", statusCode)
-                .register(registry)
-                .increment();
+        Counter counter = transactionCounters.get(statusCode);
+        if (counter == null) {
+            counter = transactionCounters.computeIfAbsent(statusCodes.limit(statusCode),
+                    this::createTransactionCounter);
+        }
+        counter.increment();
     }
 
-    public void recordEvervaultInspectResponseTime(long duration) {
-        DistributionSummary.builder("custom.stackdriver.evervault_inspect_response_time")
-                .description("Response time of evervault inspect requests")
-                .tag("service_name", serviceName)
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(this.registry)
-                .record(duration);
+    public void recordEvervaultInspectResponseNanos(long nanos) {
+        evervaultInspectResponseTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTotalResponseNanos(long nanos) {
+        totalResponseTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPaysightResponseNanos(long nanos) {
+        paysightResponseTime.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHttpClientResponseNanos(String clientName, long nanos) {
+        Timer timer = httpClientResponseTimes.get(clientName);
+        if (timer == null) {
+            timer = httpClientResponseTimes.computeIfAbsent(clientNames.limit(clientName),
+                    this::createHttpClientResponseTime);
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @deprecated use {@link #recordEvervaultInspectResponseNanos(long)}
+     */
+    @Deprecated
+    public void recordEvervaultInspectResponseTime(long millis) {
+        recordEvervaultInspectResponseNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @deprecated use {@link #recordTotalResponseNanos(long)}
+     */
+    @Deprecated
+    public void recordTotalResponseTime(long millis) {
+        recordTotalResponseNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @deprecated use {@link #recordPaysightResponseNanos(long)}
+     */
+    @Deprecated
+    public void recordPaysightResponseTime(long millis) {
+        recordPaysightResponseNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @deprecated use {@link #recordHttpClientResponseNanos(String, long)}
+     */
+    @Deprecated
+    public void recordHttpClientResponseTime(String clientName, long millis) {
+        recordHttpClientResponseNanos(clientName, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public void incrementHttpClientRequestCounter(String clientName) {
+        Counter counter = httpClientRequestCounters.get(clientName);
+        if (counter == null) {
+            counter = httpClientRequestCounters.computeIfAbsent(clientNames.limit(clientName),
+                    this::createHttpClientRequestCounter);
+        }
+        counter.increment();
+    }
+
+    public void incrementHttpClientErrorCounter(String clientName, String errorType) {
+        // Only accepted names and OTHER are keys, so a hit means the name is its own tag value
+        String client = clientName;
+        Map<String, Counter> byErrorType = httpClientErrorCounters.get(clientName);
+        if (byErrorType == null) {
+            client = clientNames.limit(clientName);
+            byErrorType = httpClientErrorCounters.computeIfAbsent(client, name -> new ConcurrentHashMap<>());
+        }
+        Counter counter = byErrorType.get(errorType);
+        if (counter == null) {
+            String clientTag = client;
+            counter = byErrorType.computeIfAbsent(errorTypes.limit(errorType),
+                    type -> createHttpClientErrorCounter(clientTag, type));
+        }
+        counter.increment();
+    }
+
+    /**
+     * Counts a response in {@code custom.stackdriver.http_client.responses} by status class and attempt number.
+     *
+     * @param statusClass hundreds digit of the status code, or {@code 0} for an attempt that got no response
+     * @param attempt     attempt number from 1; attempts from {@link #MAX_ATTEMPT_TAG} on share one tag value
+     */
+    public void incrementHttpClientResponseCounter(String clientName, int statusClass, int attempt) {
+        String client = clientName;
+        AtomicReferenceArray<Counter> counters = httpClientResponseCounters.get(clientName);
+        if (counters == null) {
+            client = clientNames.limit(clientName);
+            counters = httpClientResponseCounters.computeIfAbsent(client,
+                    name -> new AtomicReferenceArray<>(MAX_ATTEMPT_TAG * STATUS_CLASSES.length));
+        }
+        int cls = statusClass >= 1 && statusClass < STATUS_CLASSES.length ? statusClass : 0;
+        int attemptIndex = Math.min(Math.max(attempt, 1), MAX_ATTEMPT_TAG) - 1;
+        int index = attemptIndex * STATUS_CLASSES.length + cls;
+        Counter counter = counters.get(index);
+        if (counter == null) {
+            // Registration is idempotent, so racing callers end up with the same counter
+            counter = createHttpClientResponseCounter(client, cls, attemptIndex + 1);
+            counters.set(index, counter);
+        }
+        counter.increment();
     }
 
-    public void recordTotalResponseTime(long duration) {
-        DistributionSummary.builder("custom.stackdriver.total_response_time")
-                .description("Total response time of payment requests")
+    /**
+     * Returns the number of attempts in progress to the client, published as
+     * {@code custom.stackdriver.http_client.in_flight}. Callers increment it when an attempt starts and
+     * decrement it when the attempt ends.
+     */
+    public AtomicInteger httpClientInFlight(String clientName) {
+        AtomicInteger inFlight = httpClientInFlight.get(clientName);
+        if (inFlight == null) {
+            inFlight = httpClientInFlight.computeIfAbsent(clientNames.limit(clientName),
+                    this::createHttpClientInFlight);
+        }
+        return inFlight;
+    }
+
+    /**
+     * Returns the {@code service_name} tag value of every meter, for meters of other components.
+     */
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    /**
+     * Returns the {@code client} tag value recorded for the client: its name, or {@code OTHER} past the limit.
+     * For meters of other components that should stay consistent with the HTTP client meters.
+     */
+    public String clientTag(String clientName) {
+        return clientNames.limit(clientName);
+    }
+
+    private TagValueLimiter tagValueLimiter(String tag, PaymentMetricsProperties.TagLimit limit) {
+        Counter overflows = Counter.builder("custom.stackdriver.metrics.tag_limit_exceeded")
+                .description("Tag values recorded as OTHER because the tag reached its value limit")
                 .tag("service_name", serviceName)
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(this.registry)
-                .record(duration);
+                .tag("tag", tag)
+                .register(registry);
+        return new TagValueLimiter(tag, limit, overflows);
+    }
+
+    private Timer responseTime(String name, String description) {
+        return latencyDistribution(Timer.builder(name)
+                .description(description)
+                .tag("service_name", serviceName))
+                .register(registry);
     }
 
-    public void recordPaysightResponseTime(long duration) {
-        DistributionSummary.builder("custom.stackdriver.paysight_response_time")
-                .description("Total response time of payment requests")
+    private Timer.Builder latencyDistribution(Timer.Builder builder) {
+        return switch (properties.getLatencyHistogram()) {
+            case PERCENTILES -> builder.publishPercentiles(0.5, 0.95, 0.99);
+            case SLO -> builder.serviceLevelObjectives(properties.getSloBoundaries().toArray(Duration[]::new));
+            case HISTOGRAM -> builder.publishPercentileHistogram()
+                    .minimumExpectedValue(properties.getMinimumExpectedLatency())
+                    .maximumExpectedValue(properties.getMaximumExpectedLatency());
+        };
+    }
+
+    private Counter createTransactionCounter(String statusCode) {
+        return Counter.builder("custom.stackdriver.requests.processed")
+                .description("Total number of payment by status code")
                 .tag("service_name", serviceName)
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(this.registry)
-                .record(duration);
+                .tag("statusCode", statusCode)
+                .register(registry);
     }
 
-    public void recordHttpClientResponseTime(String clientName, long duration) {
-        DistributionSummary.builder("custom.stackdriver.http_client_response_time")
+    private Timer createHttpClientResponseTime(String clientName) {
+        return latencyDistribution(Timer.builder("custom.stackdriver.http_client_response_time")
                 .description("Response time of HTTP client requests")
                 .tag("service_name", serviceName)
-                .tag("client", clientName)
-                .publishPercentiles(0.5, 0.95, 0.99)
-                .register(this.registry)
-                .record(duration);
+                .tag("client", clientName))
+                .register(registry);
     }
 
-    public void incrementHttpClientRequestCounter(String clientName) {
-        Counter.builder("custom.stackdriver.http_client.requests")
+    private Counter createHttpClientRequestCounter(String clientName) {
+        return Counter.builder("custom.stackdriver.http_client.requests")
                 .description("Number of HTTP client requests")
                 .tag("service_name", serviceName)
                 .tag("client", clientName)
-                .register(registry)
-                .increment();
+                .register(registry);
     }
 
-    public void incrementHttpClientErrorCounter(String clientName, String errorType) {
-        Counter.builder("custom.stackdriver.http_client.errors")
+    private Counter createHttpClientErrorCounter(String clientName, String errorType) {
+        return Counter.builder("custom.stackdriver.http_client.errors")
                 .description("Number of HTTP client errors")
                 .tag("service_name", serviceName)
                 .tag("client", clientName)
                 .tag("error_type", errorType)
-                .register(registry)
-                .increment();
+                .register(registry);
+    }
+
+    private Counter createHttpClientResponseCounter(String clientName, int statusClass, int attempt) {
+        return Counter.builder("custom.stackdriver.http_client.responses")
+                .description("HTTP client responses by status class and attempt number")
+                .tag("service_name", serviceName)
+                .tag("client", clientName)
+                .tag("status_class", STATUS_CLASSES[statusClass])
+                .tag("attempt", attempt == MAX_ATTEMPT_TAG ? MAX_ATTEMPT_TAG + "+" : Integer.toString(attempt))
+                .register(registry);
+    }
+
+    private AtomicInteger createHttpClientInFlight(String clientName) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("custom.stackdriver.http_client.in_flight", inFlight, AtomicInteger::get)
+                .description("HTTP client attempts in progress")
+                .tag("service_name", serviceName)
+                .tag("client", clientName)
+                .register(registry);
+        return inFlight;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,9 @@
 package com.paymend.commons.metrics;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -9,6 +13,104 @@ public class PaymentMetricsProperties {
 
     private String serviceName = "paymend-service";
 
+    /** How the latency timers of {@link PaymentMetrics} publish their distribution. */
+    private LatencyHistogram latencyHistogram = LatencyHistogram.PERCENTILES;
+
+    /** Bucket boundaries in {@link LatencyHistogram#SLO} mode. */
+    private List<Duration> sloBoundaries = new ArrayList<>(List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)));
+
+    /** Lower bound of the buckets in {@link LatencyHistogram#HISTOGRAM} mode. */
+    private Duration minimumExpectedLatency = Duration.ofMillis(1);
+
+    /** Upper bound of the buckets in {@link LatencyHistogram#HISTOGRAM} mode. */
+    private Duration maximumExpectedLatency = Duration.ofSeconds(30);
+
+    /** Bounds on the values of the dynamic tags of {@link PaymentMetrics}. */
+    private TagLimits tagLimits = new TagLimits();
+
+    public enum LatencyHistogram {
+        /** p50, p95 and p99 computed in the service; cannot be aggregated across instances. */
+        PERCENTILES,
+        /** Cumulative counts per {@code slo-boundaries} bucket; aggregatable, a few series per meter. */
+        SLO,
+        /**
+         * Micrometer's fixed log-linear buckets between the minimum and maximum expected latency; aggregatable,
+         * bounded memory, and percentiles can be estimated from the merged buckets.
+         */
+        HISTOGRAM
+    }
+
+    public static class TagLimits {
+
+        /** {@code statusCode} of {@code custom.stackdriver.requests.processed}. */
+        private TagLimit statusCode = new TagLimit(50);
+
+        /** {@code client} of the HTTP client meters. */
+        private TagLimit client = new TagLimit(50);
+
+        /** {@code error_type} of {@code custom.stackdriver.http_client.errors}. */
+        private TagLimit errorType = new TagLimit(20);
+
+        public TagLimit getStatusCode() {
+            return statusCode;
+        }
+
+        public void setStatusCode(TagLimit statusCode) {
+            this.statusCode = statusCode;
+        }
+
+        public TagLimit getClient() {
+            return client;
+        }
+
+        public void setClient(TagLimit client) {
+            this.client = client;
+        }
+
+        public TagLimit getErrorType() {
+            return errorType;
+        }
+
+        public void setErrorType(TagLimit errorType) {
+            this.errorType = errorType;
+        }
+    }
+
+    public static class TagLimit {
+
+        /** Distinct values kept before new ones are recorded as {@code OTHER}; ignored with allowed values. */
+        private int maxValues;
+
+        /** If set, the only values kept; everything else is recorded as {@code OTHER}. */
+        private List<String> allowedValues = new ArrayList<>();
+
+        public TagLimit() {
+            this(50);
+        }
+
+        public TagLimit(int maxValues) {
+            this.maxValues = maxValues;
+        }
+
+        public int getMaxValues() {
+            return maxValues;
+        }
+
+        public void setMaxValues(int maxValues) {
+            this.maxValues = maxValues;
+        }
+
+        public List<String> getAllowedValues() {
+            return allowedValues;
+        }
+
+        public void setAllowedValues(List<String> allowedValues) {
+            this.allowedValues = allowedValues;
+        }
+    }
+
     public String getServiceName() {
         return serviceName;
     }
@@ -16,4 +118,44 @@ public class PaymentMetricsProperties {
     public void setServiceName(String serviceName) {
         this.serviceName = serviceName;
     }
-}
\ No newline at end of file
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    public void setLatencyHistogram(LatencyHistogram latencyHistogram) {
+        this.latencyHistogram = latencyHistogram;
+    }
+
+    public List<Duration> getSloBoundaries() {
+        return sloBoundaries;
+    }
+
+    public void setSloBoundaries(List<Duration> sloBoundaries) {
+        this.sloBoundaries = sloBoundaries;
+    }
+
+    public Duration getMinimumExpectedLatency() {
+        return minimumExpectedLatency;
+    }
+
+    public void setMinimumExpectedLatency(Duration minimumExpectedLatency) {
+        this.minimumExpectedLatency = minimumExpectedLatency;
+    }
+
+    public Duration getMaximumExpectedLatency() {
+        return maximumExpectedLatency;
+    }
+
+    public void setMaximumExpectedLatency(Duration maximumExpectedLatency) {
+        this.maximumExpectedLatency = maximumExpectedLatency;
+    }
+
+    public TagLimits getTagLimits() {
+        return tagLimits;
+    }
+
+    public void setTagLimits(TagLimits tagLimits) {
+        this.tagLimits = tagLimits;
+    }
+}
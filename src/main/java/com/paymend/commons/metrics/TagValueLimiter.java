@@ -0,0 +1,69 @@
+package com.paymend.commons.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounds the values of one dynamic tag. With allowed values configured, only those pass; otherwise the first
+ * {@code maxValues} distinct values do. Anything else is recorded as {@link #OTHER} and counted in the
+ * overflow counter. A value seen before costs one concurrent set lookup; no lock is taken.
+ */
+@Slf4j
+final class TagValueLimiter {
+
+    static final String OTHER = "OTHER";
+
+    private final String tag;
+    private final Set<String> allowedValues;
+    private final int maxValues;
+    private final Counter overflows;
+    private final Set<String> accepted = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger slots = new AtomicInteger();
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    TagValueLimiter(String tag, PaymentMetricsProperties.TagLimit limit, Counter overflows) {
+        this.tag = tag;
+        this.allowedValues = Set.copyOf(limit.getAllowedValues());
+        this.maxValues = limit.getMaxValues();
+        this.overflows = overflows;
+    }
+
+    /**
+     * Returns the value itself if it may be used as a tag value, {@link #OTHER} otherwise.
+     */
+    String limit(String value) {
+        if (accepted.contains(value) || OTHER.equals(value)) {
+            return value;
+        }
+        if (allowedValues.isEmpty() ? reserveSlot(value) : allowedValues.contains(value)) {
+            accepted.add(value);
+            return value;
+        }
+        overflows.increment();
+        if (warned.compareAndSet(false, true)) {
+            log.warn("Too many values for metric tag '{}', recording '{}' and further new values as {}",
+                    tag, value, OTHER);
+        }
+        return OTHER;
+    }
+
+    private boolean reserveSlot(String value) {
+        int taken;
+        do {
+            taken = slots.get();
+            if (taken >= maxValues) {
+                return false;
+            }
+        } while (!slots.compareAndSet(taken, taken + 1));
+        if (!accepted.add(value)) {
+            // Admitted concurrently by another thread
+            slots.decrementAndGet();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package com.paymend.commons.reactive;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.context.RequestIdGenerator;
+import com.paymend.commons.interceptor.CorrelationIdInterceptor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code WebClient} counterpart of {@link CorrelationIdInterceptor}. The request-id is taken from the request
+ * header, else the Reactor context, else {@link CorrelationContext} (for calls subscribed on a request
+ * thread), else generated; it is set as header and bound in the Reactor context of the exchange.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CorrelationExchangeFilter implements ExchangeFilterFunction {
+
+    private final RestTemplateConfigProperties.Correlation correlationConfig;
+    private final RequestIdGenerator requestIdGenerator;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!correlationConfig.isEnabled()) {
+            return next.exchange(request);
+        }
+        return Mono.deferContextual(context -> {
+            String requestId = getOrCreateRequestId(request, ReactiveCorrelation.requestId(context));
+            ClientRequest correlated = ClientRequest.from(request)
+                    .headers(headers -> headers.set(correlationConfig.getRequestIdHeader(), requestId))
+                    .build();
+            log.debug("Outbound request [{}] {} {}", requestId, request.method(), request.url());
+            return next.exchange(correlated)
+                    .contextWrite(downstream -> ReactiveCorrelation.withRequestId(downstream, requestId));
+        });
+    }
+
+    private String getOrCreateRequestId(ClientRequest request, String contextRequestId) {
+        String existingRequestId = request.headers().getFirst(correlationConfig.getRequestIdHeader());
+        if (StringUtils.hasText(existingRequestId)) {
+            return existingRequestId;
+        }
+        if (StringUtils.hasText(contextRequestId)) {
+            return contextRequestId;
+        }
+        String threadRequestId = CorrelationContext.getRequestId();
+        if (StringUtils.hasText(threadRequestId)) {
+            return threadRequestId;
+        }
+        String fallbackRequestId = requestIdGenerator.generate(
+                correlationConfig.getRequestIdPrefix(), correlationConfig.getRequestIdLength());
+        log.warn("No request-id found in header or context, generated fallback: {}", fallbackRequestId);
+        return fallbackRequestId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymend.commons.reactive;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.paymend.commons.filter.CorrelationFilter;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link CorrelationFilter}: binds the incoming {@code request-id} header in the
+ * Reactor context of the exchange, so it is visible to every operator and outbound {@code WebClient} call
+ * of the request, whichever thread they run on.
+ */
+@Slf4j
+public class CorrelationWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String requestId = exchange.getRequest().getHeaders().getFirst(CorrelationFilter.REQUEST_ID_HEADER);
+        if (requestId == null) {
+            return chain.filter(exchange);
+        }
+        log.debug("Set request-id from header: {}", requestId);
+        return chain.filter(exchange).contextWrite(context -> ReactiveCorrelation.withRequestId(context, requestId));
+    }
+
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+}
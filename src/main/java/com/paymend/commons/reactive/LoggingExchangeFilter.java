@@ -0,0 +1,83 @@
+package com.paymend.commons.reactive;
+
+import java.net.URI;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.interceptor.HttpLoggingInterceptor;
+import com.paymend.commons.logging.BodySizeMetrics;
+import com.paymend.commons.logging.BodySizeMetrics.BodySizes;
+import com.paymend.commons.logging.LogArguments;
+import com.paymend.commons.logging.LogDecision;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.metrics.PaymentMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code WebClient} counterpart of {@link HttpLoggingInterceptor}: logs each attempt's request line and
+ * status with masked headers through the {@link TrafficLogger}, following the same logging policies
+ * (sampled by the request-id of the Reactor context), and publishes
+ * {@code custom.stackdriver.http_client.body.size} from {@code Content-Length}.
+ * <p>
+ * Bodies are not logged: a reactive body is a stream that would have to be buffered to be logged, which
+ * is what this stack avoids. {@code BODIES} and {@code ON_ERROR} policies log the headers.
+ * </p>
+ */
+@Slf4j
+public class LoggingExchangeFilter implements ExchangeFilterFunction, MeterBinder {
+
+    private static final String RESPONSE_FORMAT = "[WebClient Response] Status code: {}\nHeaders:\n{}";
+
+    private final TrafficLogger trafficLogger;
+    private final LoggingPolicyResolver loggingPolicyResolver;
+    private final ClientNameResolver clientNameResolver;
+    private final HeaderMasker headerMasker;
+    private final BodySizeMetrics bodySizeMetrics;
+
+    public LoggingExchangeFilter(TrafficLogger trafficLogger, LoggingPolicyResolver loggingPolicyResolver,
+            ClientNameResolver clientNameResolver, HeaderMasker headerMasker, PaymentMetrics paymentMetrics) {
+        this.trafficLogger = trafficLogger;
+        this.loggingPolicyResolver = loggingPolicyResolver;
+        this.clientNameResolver = clientNameResolver;
+        this.headerMasker = headerMasker;
+        this.bodySizeMetrics = new BodySizeMetrics(paymentMetrics);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            URI uri = request.url();
+            BodySizes sizes = bodySizeMetrics.forClient(clientNameResolver.resolve(uri));
+            sizes.recordRequest(request.headers().getContentLength());
+
+            LogDecision decision = loggingPolicyResolver.decide(uri, ReactiveCorrelation.requestId(context));
+            if (decision.isOff()) {
+                return next.exchange(request)
+                        .doOnNext(response -> sizes.recordResponse(response.headers().asHttpHeaders().getContentLength()));
+            }
+
+            trafficLogger.info(log, "[WebClient Request] {} {}", request.method(), uri);
+            trafficLogger.info(log, "[WebClient Request] Headers: {}", LogArguments.headers(request.headers(), headerMasker));
+            return next.exchange(request).doOnNext(response -> {
+                sizes.recordResponse(response.headers().asHttpHeaders().getContentLength());
+                trafficLogger.info(log, RESPONSE_FORMAT, response.statusCode().value(),
+                        LogArguments.headerLines(response.headers().asHttpHeaders(), headerMasker));
+            });
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bodySizeMetrics.bindTo(registry);
+    }
+}
@@ -0,0 +1,76 @@
+package com.paymend.commons.reactive;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.interceptor.HttpClientMetricsInterceptor;
+import com.paymend.commons.metrics.PaymentMetrics;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code WebClient} counterpart of {@link HttpClientMetricsInterceptor}: records requests, latency up to the
+ * response headers, errors, responses by status class and attempt number, and attempts in progress in the
+ * same {@link PaymentMetrics} HTTP client meters. The attempt number is read from the Reactor context
+ * written by {@link RetryExchangeFilter}.
+ */
+public class MetricsExchangeFilter implements ExchangeFilterFunction {
+
+    private final ClientNameResolver clientNameResolver;
+    private final PaymentMetrics paymentMetrics;
+
+    public MetricsExchangeFilter(ClientNameResolver clientNameResolver, PaymentMetrics paymentMetrics) {
+        this.clientNameResolver = clientNameResolver;
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            String clientName = paymentMetrics.clientTag(clientNameResolver.resolve(request.url()));
+            AtomicInteger inFlight = paymentMetrics.httpClientInFlight(clientName);
+            int attempt = context.getOrDefault(RetryExchangeFilter.ATTEMPT_CONTEXT_KEY, 1);
+
+            paymentMetrics.incrementHttpClientRequestCounter(clientName);
+            inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnNext(response -> {
+                        int status = response.statusCode().value();
+                        paymentMetrics.recordHttpClientResponseNanos(clientName, System.nanoTime() - start);
+                        paymentMetrics.incrementHttpClientResponseCounter(clientName, status / 100, attempt);
+                        if (status >= 500) {
+                            paymentMetrics.incrementHttpClientErrorCounter(clientName, "server_error");
+                        } else if (status >= 400) {
+                            paymentMetrics.incrementHttpClientErrorCounter(clientName, "client_error");
+                        }
+                    })
+                    .doOnError(failure -> failure instanceof WebClientRequestException || failure instanceof IOException,
+                            failure -> {
+                                paymentMetrics.recordHttpClientResponseNanos(clientName, System.nanoTime() - start);
+                                paymentMetrics.incrementHttpClientResponseCounter(clientName, 0, attempt);
+                                paymentMetrics.incrementHttpClientErrorCounter(clientName,
+                                        isTimeout(failure) ? "timeout" : "io_error");
+                            })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private static boolean isTimeout(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
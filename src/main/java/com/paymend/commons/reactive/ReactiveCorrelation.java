@@ -0,0 +1,35 @@
+package com.paymend.commons.reactive;
+
+import org.springframework.util.StringUtils;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * The request-id of a reactive pipeline, kept in the Reactor {@link Context} under {@link #REQUEST_ID_KEY}
+ * where {@code CorrelationContext} would use the thread. {@link CorrelationWebFilter} binds it for incoming
+ * requests and {@link CorrelationExchangeFilter} for outbound {@code WebClient} calls.
+ */
+public final class ReactiveCorrelation {
+
+    public static final String REQUEST_ID_KEY = ReactiveCorrelation.class.getName() + ".requestId";
+
+    private ReactiveCorrelation() {
+    }
+
+    /**
+     * The request-id of the subscribing pipeline; empty if none is bound.
+     */
+    public static Mono<String> requestId() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(requestId(context)));
+    }
+
+    public static String requestId(ContextView context) {
+        return context.getOrDefault(REQUEST_ID_KEY, null);
+    }
+
+    public static Context withRequestId(Context context, String requestId) {
+        return StringUtils.hasText(requestId) ? context.put(REQUEST_ID_KEY, requestId) : context;
+    }
+}
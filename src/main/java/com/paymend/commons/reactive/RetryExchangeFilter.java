@@ -0,0 +1,129 @@
+package com.paymend.commons.reactive;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.RetryableHttpException;
+import com.paymend.commons.interceptor.RetryInterceptor;
+import com.paymend.commons.resilience.RequestBudget;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+/**
+ * {@code WebClient} counterpart of {@link RetryInterceptor}, with the same {@code paymend.http-client.retry}
+ * settings and per-client {@link RequestBudget}.
+ * <p>
+ * A response with a retryable status code is released and turned into a {@link RetryableHttpException}.
+ * Calls with a retryable method are then resubscribed after an exponential backoff, without blocking a
+ * thread, on that exception and on connection failures, until {@code max-attempts} or the budget runs out.
+ * The attempt number is passed to the filters after this one in the Reactor context.
+ * </p>
+ */
+@Slf4j
+public class RetryExchangeFilter implements ExchangeFilterFunction {
+
+    /** Reactor context key holding the attempt number, from 1, for the filters after this one. */
+    static final String ATTEMPT_CONTEXT_KEY = RetryExchangeFilter.class.getName() + ".attempt";
+
+    private final ClientNameResolver clientNameResolver;
+    private final RestTemplateConfigProperties.Retry retryConfig;
+    private final Set<HttpMethod> retryableMethods;
+    private final Set<HttpStatusCode> retryableStatusCodes;
+    private final Map<String, RequestBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryExchangeFilter(ClientNameResolver clientNameResolver, RestTemplateConfigProperties.Retry retryConfig) {
+        this.clientNameResolver = clientNameResolver;
+        this.retryConfig = retryConfig;
+        this.retryableMethods = retryConfig.getRetryableMethods().stream()
+                .map(HttpMethod::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+        this.retryableStatusCodes = retryConfig.getRetryableStatusCodes().stream()
+                .map(HttpStatusCode::valueOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!retryableMethods.contains(request.method())) {
+            return Mono.defer(() -> next.exchange(request)).flatMap(this::checkRetryable);
+        }
+
+        RequestBudget budget = retryConfig.getBudget().isEnabled()
+                ? budgets.computeIfAbsent(clientNameResolver.resolve(request.url()), this::createBudget)
+                : null;
+
+        // Credited per subscription rather than per assembly; retries only resubscribe the inner attempt
+        return Mono.defer(() -> {
+            if (budget != null) {
+                budget.recordRequest();
+            }
+            AtomicInteger attempts = new AtomicInteger();
+            Mono<ClientResponse> attempt = Mono.defer(() -> next.exchange(request)
+                            .contextWrite(Context.of(ATTEMPT_CONTEXT_KEY, attempts.incrementAndGet())))
+                    .flatMap(this::checkRetryable);
+
+            return attempt.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                long retries = signal.totalRetries();
+                if (!isRetryable(failure) || retries + 1 >= retryConfig.getMaxAttempts()
+                        || (budget != null && !budget.tryAcquire())) {
+                    return Mono.error(failure);
+                }
+                log.debug("Retrying {} {} (attempt {})", request.method(), request.url(), retries + 2);
+                return Mono.delay(backOff(retries));
+            })));
+        });
+    }
+
+    private Mono<ClientResponse> checkRetryable(ClientResponse response) {
+        if (retryableStatusCodes.contains(response.statusCode())) {
+            return response.releaseBody().then(Mono.error(
+                    new RetryableHttpException("Retryable status code: " + response.statusCode().value())));
+        }
+        return Mono.just(response);
+    }
+
+    private static boolean isRetryable(Throwable failure) {
+        return failure instanceof RetryableHttpException
+                || failure instanceof WebClientRequestException
+                || failure instanceof IOException;
+    }
+
+    /**
+     * Same intervals as the {@code RetryTemplate} back-off: {@code initial-interval * multiplier^retries},
+     * stretched by up to {@code multiplier - 1} times with jitter, capped at {@code max-interval}.
+     */
+    private Duration backOff(long retries) {
+        double interval = retryConfig.getInitialInterval().toMillis() * Math.pow(retryConfig.getMultiplier(), retries);
+        if (retryConfig.isJitter()) {
+            interval += ThreadLocalRandom.current().nextDouble() * (retryConfig.getMultiplier() - 1) * interval;
+        }
+        return Duration.ofMillis((long) Math.min(interval, retryConfig.getMaxInterval().toMillis()));
+    }
+
+    private RequestBudget createBudget(String clientName) {
+        RestTemplateConfigProperties.Retry.Budget config = retryConfig.getBudget();
+        log.debug("Creating retry budget for client {}: {}% of traffic, {} max tokens",
+                clientName, config.getPercent(), config.getMaxTokens());
+        return new RequestBudget(config.getPercent(), config.getMaxTokens());
+    }
+}
@@ -0,0 +1,188 @@
+package com.paymend.commons.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+/**
+ * Concurrency limit for one downstream that adapts to its round-trip time (gradient algorithm).
+ * <p>
+ * A long-term RTT average is compared with each new sample: while
+ * {@code rttTolerance * longRtt / rtt} stays at or above one the limit grows by about its square
+ * root; once the downstream slows down the limit shrinks in proportion to the slowdown. Samples
+ * taken while less than half of the limit is in use are ignored, and dropped calls (I/O errors,
+ * 5xx) shrink the limit by 10%. Calls over the limit wait up to {@code maxWaitDuration}.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double DROP_BACKOFF = 0.9;
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double longRttDecay;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private volatile int limit;
+
+    // Guarded by "this"
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(RestTemplateConfigProperties.ConcurrencyLimit config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.rttTolerance = config.getRttTolerance();
+        this.smoothing = config.getSmoothing();
+        this.longRttDecay = 2.0 / (Math.max(1, config.getLongWindow()) + 1);
+        this.maxWaitNanos = config.getMaxWaitDuration().toNanos();
+        this.estimatedLimit = Math.min(maxLimit, Math.max(minLimit, config.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Acquires a slot, waiting at most {@code maxWaitDuration} for one to free up.
+     *
+     * @return {@code true} if the call may proceed; it must then report {@link #onSuccess(long)},
+     *         {@link #onDropped()} or {@link #onCancelled()}
+     */
+    public boolean tryAcquire() {
+        if (tryIncrement()) {
+            return true;
+        }
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+
+        // Register before re-checking, so a concurrent release either frees the slot we see or signals us
+        waiters.incrementAndGet();
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (!tryIncrement()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = permitReleased.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Releases the slot of a completed call and feeds its round-trip time into the limit.
+     */
+    public void onSuccess(long rttNanos) {
+        int inFlightAtCompletion = inFlight.get();
+        release();
+        if (rttNanos > 0) {
+            sample(rttNanos, inFlightAtCompletion);
+        }
+    }
+
+    /**
+     * Releases the slot of a failed call and backs the limit off.
+     */
+    public void onDropped() {
+        release();
+        synchronized (this) {
+            updateLimit(estimatedLimit * DROP_BACKOFF);
+        }
+    }
+
+    /**
+     * Releases the slot of a call abandoned by the caller, such as a cancelled hedge, leaving the limit as is.
+     */
+    public void onCancelled() {
+        release();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtCompletion) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (rttNanos - longRttNanos) / samples;
+            return;
+        }
+        longRttNanos += (rttNanos - longRttNanos) * longRttDecay;
+
+        // Let the long-term RTT recover quickly after a sustained slowdown has ended
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Not enough load to tell anything about the downstream's capacity
+        if (inFlightAtCompletion * 2 < estimatedLimit) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rttNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        updateLimit(estimatedLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private void updateLimit(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        int previous = limit;
+        limit = (int) estimatedLimit;
+        if (limit > previous) {
+            signalWaiters(true);
+        }
+    }
+
+    private boolean tryIncrement() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        signalWaiters(false);
+    }
+
+    private void signalWaiters(boolean all) {
+        if (waiters.get() > 0) {
+            lock.lock();
+            try {
+                if (all) {
+                    permitReleased.signalAll();
+                } else {
+                    permitReleased.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
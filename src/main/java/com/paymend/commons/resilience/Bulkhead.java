@@ -0,0 +1,44 @@
+package com.paymend.commons.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semaphore bulkhead capping the number of concurrent in-flight calls to one downstream.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public Bulkhead(int maxConcurrentCalls, Duration maxWaitDuration) {
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = maxWaitDuration.toNanos();
+    }
+
+    /**
+     * Acquires a permit, waiting at most {@code maxWaitDuration}.
+     *
+     * @return {@code true} if the call may proceed; the permit must then be returned with {@link #release()}
+     */
+    public boolean tryAcquire() {
+        if (maxWaitNanos <= 0) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
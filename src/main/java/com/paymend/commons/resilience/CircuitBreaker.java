@@ -0,0 +1,190 @@
+package com.paymend.commons.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lock-free, count-based circuit breaker.
+ * <p>
+ * While {@code CLOSED}, the outcomes of the last {@code slidingWindowSize} calls are kept in a ring.
+ * Once at least {@code minimumNumberOfCalls} have been recorded and either the failure rate or the
+ * slow-call rate reaches its threshold, the breaker opens and rejects calls for
+ * {@code waitDurationInOpenState}. It then lets {@code permittedCallsInHalfOpenState} probes through
+ * and closes again only if those probes stay below both thresholds.
+ * </p>
+ * State and window are swapped together with a single CAS, so a transition always starts from an
+ * empty window.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int FAILURE = 1;
+    private static final int SLOW = 2;
+
+    private final String name;
+    private final RestTemplateConfigProperties.CircuitBreaker config;
+    private final long slowCallNanos;
+    private final long waitNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<StateHolder> state;
+
+    public CircuitBreaker(String name, RestTemplateConfigProperties.CircuitBreaker config) {
+        this(name, config, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, RestTemplateConfigProperties.CircuitBreaker config, LongSupplier nanoClock) {
+        this.name = name;
+        this.nanoClock = nanoClock;
+        this.config = config;
+        this.slowCallNanos = config.getSlowCallDurationThreshold().toNanos();
+        this.waitNanos = config.getWaitDurationInOpenState().toNanos();
+        this.state = new AtomicReference<>(closed());
+    }
+
+    /**
+     * @return {@code true} if a call may proceed; every permitted call must be followed by
+     *         {@link #onSuccess(long)}, {@link #onError(long)} or {@link #onCancelled()}
+     */
+    public boolean tryAcquirePermission() {
+        StateHolder current = state.get();
+        switch (current.state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - current.openedAtNanos < waitNanos) {
+                    return false;
+                }
+                transition(current, halfOpen());
+                return tryAcquirePermission();
+            default:
+                return current.halfOpenPermits.getAndDecrement() > 0;
+        }
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW : 0);
+    }
+
+    public void onError(long durationNanos) {
+        record(FAILURE | (durationNanos >= slowCallNanos ? SLOW : 0));
+    }
+
+    /**
+     * Returns the permission of a call abandoned by the caller, such as a cancelled hedge, without recording
+     * an outcome.
+     */
+    public void onCancelled() {
+        StateHolder current = state.get();
+        if (current.state == State.HALF_OPEN) {
+            current.halfOpenPermits.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state.get().state;
+    }
+
+    private void record(int outcome) {
+        StateHolder current = state.get();
+        if (current.state == State.OPEN) {
+            return;
+        }
+
+        Window window = current.window;
+        window.record(outcome);
+
+        int recorded = window.recorded.get();
+        boolean halfOpen = current.state == State.HALF_OPEN;
+        int required = halfOpen ? config.getPermittedCallsInHalfOpenState() : config.getMinimumNumberOfCalls();
+        if (recorded < required) {
+            return;
+        }
+
+        float failureRate = window.failures.get() * 100f / recorded;
+        float slowCallRate = window.slowCalls.get() * 100f / recorded;
+        if (failureRate >= config.getFailureRateThreshold() || slowCallRate >= config.getSlowCallRateThreshold()) {
+            if (transition(current, open())) {
+                log.warn("Circuit breaker [{}] opened: failure rate {}%, slow call rate {}% over {} calls",
+                        name, failureRate, slowCallRate, recorded);
+            }
+        } else if (halfOpen && transition(current, closed())) {
+            log.info("Circuit breaker [{}] closed after {} successful probes", name, recorded);
+        }
+    }
+
+    private boolean transition(StateHolder from, StateHolder to) {
+        boolean changed = state.compareAndSet(from, to);
+        if (changed) {
+            log.debug("Circuit breaker [{}] {} -> {}", name, from.state, to.state);
+        }
+        return changed;
+    }
+
+    private StateHolder closed() {
+        return new StateHolder(State.CLOSED, 0, new Window(config.getSlidingWindowSize()), null);
+    }
+
+    private StateHolder open() {
+        return new StateHolder(State.OPEN, nanoClock.getAsLong(), null, null);
+    }
+
+    private StateHolder halfOpen() {
+        int permitted = config.getPermittedCallsInHalfOpenState();
+        return new StateHolder(State.HALF_OPEN, 0, new Window(permitted), new AtomicInteger(permitted));
+    }
+
+    private record StateHolder(State state, long openedAtNanos, Window window, AtomicInteger halfOpenPermits) {
+    }
+
+    /**
+     * Ring of the most recent call outcomes with running failure and slow-call counts.
+     */
+    private static final class Window {
+
+        private static final int EMPTY = -1;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            this.outcomes = new AtomicIntegerArray(Math.max(1, size));
+            for (int i = 0; i < outcomes.length(); i++) {
+                outcomes.set(i, EMPTY);
+            }
+        }
+
+        void record(int outcome) {
+            int index = (int) (cursor.getAndIncrement() % outcomes.length());
+            int previous = outcomes.getAndSet(index, outcome);
+            if (previous == EMPTY) {
+                recorded.incrementAndGet();
+            } else {
+                adjust(previous, -1);
+            }
+            adjust(outcome, 1);
+        }
+
+        private void adjust(int outcome, int delta) {
+            if ((outcome & FAILURE) != 0) {
+                failures.addAndGet(delta);
+            }
+            if ((outcome & SLOW) != 0) {
+                slowCalls.addAndGet(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.paymend.commons.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free rolling latency histogram used to estimate percentiles of recent calls.
+ * <p>
+ * Samples are counted in log-linear microsecond buckets (8 sub-buckets per power of two, so each
+ * estimate is within 12.5% of the true value). Estimates cover the current and the previous window,
+ * which bounds memory to two fixed arrays and lets old latencies age out after two windows.
+ * </p>
+ */
+public class LatencyTracker {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 37;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long windowNanos;
+    private final long minSamples;
+    private final AtomicReference<Window> current;
+    private volatile Window previous;
+
+    public LatencyTracker(Duration window, long minSamples) {
+        this.windowNanos = window.toNanos();
+        this.minSamples = minSamples;
+        this.current = new AtomicReference<>(new Window(System.nanoTime()));
+        this.previous = new Window(System.nanoTime());
+    }
+
+    public void record(long durationNanos) {
+        long micros = Math.max(0, durationNanos / 1_000);
+        currentWindow().record(bucketIndex(micros));
+    }
+
+    /**
+     * Returns the estimated latency at the given percentile in nanoseconds,
+     * or {@code -1} if fewer than {@code minSamples} calls have been recorded.
+     */
+    public long percentile(double percentile) {
+        Window now = currentWindow();
+        Window before = previous;
+        long total = now.total.get() + before.total.get();
+        if (total < minSamples || total == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += now.counts.get(i) + before.counts.get(i);
+            if (seen >= rank) {
+                return bucketUpperBound(i) * 1_000;
+            }
+        }
+        return bucketUpperBound(BUCKETS - 1) * 1_000;
+    }
+
+    private Window currentWindow() {
+        Window window = current.get();
+        long now = System.nanoTime();
+        if (now - window.startNanos < windowNanos) {
+            return window;
+        }
+        Window next = new Window(now);
+        if (current.compareAndSet(window, next)) {
+            previous = window;
+            return next;
+        }
+        return current.get();
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index + 1;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static final class Window {
+
+        private final long startNanos;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong total = new AtomicLong();
+
+        Window(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void record(int bucket) {
+            counts.incrementAndGet(bucket);
+            total.incrementAndGet();
+        }
+    }
+}
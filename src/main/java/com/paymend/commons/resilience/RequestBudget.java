@@ -0,0 +1,65 @@
+package com.paymend.commons.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket that caps additional requests (retries, hedges) at a percentage of live traffic.
+ * <p>
+ * Every original request deposits {@code percent / 100} of a token, every additional request withdraws
+ * a whole token. The bucket starts full and never holds more than {@code maxTokens}, which bounds the
+ * burst of extra requests allowed after a quiet period.
+ * </p>
+ */
+public class RequestBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    public RequestBudget(double percent, int maxTokens) {
+        if (percent < 0) {
+            throw new IllegalArgumentException("percent must not be negative");
+        }
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("maxTokens must be at least 1");
+        }
+        this.deposit = Math.round(percent * SCALE / 100);
+        this.capacity = maxTokens * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    /**
+     * Records an original request, crediting the budget.
+     */
+    public void recordRequest() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Withdraws one token for an additional request.
+     *
+     * @return {@code true} if the budget allows the additional request
+     */
+    public boolean tryAcquire() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getAvailableTokens() {
+        return (double) tokens.get() / SCALE;
+    }
+}
@@ -0,0 +1,66 @@
+package com.paymend.commons.resilience;
+
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link RetryPolicy} that additionally requires a token from the {@link RequestBudget} bound to the
+ * retry context under {@link #BUDGET_ATTRIBUTE}. Contexts without a budget behave like the delegate.
+ */
+@RequiredArgsConstructor
+public class RetryBudgetPolicy implements RetryPolicy {
+
+    public static final String BUDGET_ATTRIBUTE = RetryBudgetPolicy.class.getName() + ".budget";
+
+    private static final String DECISION_ATTRIBUTE = RetryBudgetPolicy.class.getName() + ".decision";
+
+    private final RetryPolicy delegate;
+
+    @Override
+    public boolean canRetry(RetryContext context) {
+        if (!delegate.canRetry(context)) {
+            return false;
+        }
+        if (context.getLastThrowable() == null) {
+            return true;
+        }
+        RequestBudget budget = (RequestBudget) context.getAttribute(BUDGET_ATTRIBUTE);
+        if (budget == null) {
+            return true;
+        }
+
+        // RetryTemplate evaluates canRetry more than once per failed attempt; spend at most one token per attempt
+        if (context.getAttribute(DECISION_ATTRIBUTE) instanceof Decision decision
+                && decision.retryCount() == context.getRetryCount()) {
+            return decision.allowed();
+        }
+        boolean allowed = budget.tryAcquire();
+        context.setAttribute(DECISION_ATTRIBUTE, new Decision(context.getRetryCount(), allowed));
+        return allowed;
+    }
+
+    @Override
+    public RetryContext open(RetryContext parent) {
+        return delegate.open(parent);
+    }
+
+    @Override
+    public void close(RetryContext context) {
+        delegate.close(context);
+    }
+
+    @Override
+    public void registerThrowable(RetryContext context, Throwable throwable) {
+        delegate.registerThrowable(context, throwable);
+    }
+
+    @Override
+    public int getMaxAttempts() {
+        return delegate.getMaxAttempts();
+    }
+
+    private record Decision(int retryCount, boolean allowed) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+
+class AsyncHttpExecutorTest {
+
+    private RestTemplateConfigProperties properties;
+    private AsyncHttpExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        CorrelationContext.clear();
+        MDC.clear();
+        properties = new RestTemplateConfigProperties();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (executor != null) {
+            executor.destroy();
+        }
+        CorrelationContext.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void shouldRunTasksOnNamedVirtualThreadsWithCallerContext() throws Exception {
+        // Given
+        executor = new AsyncHttpExecutor(properties);
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        MDC.put("merchant", "M-1");
+
+        // When
+        String seen = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual() + "/"
+                + Thread.currentThread().getName().startsWith("paymend-http-") + "/"
+                + CorrelationContext.getRequestId() + "/" + MDC.get("merchant"), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(seen).isEqualTo("true/true/REQ-123456789ABC/M-1");
+        assertThat(CorrelationContext.getRequestId()).isEqualTo("REQ-123456789ABC");
+        assertThat(MDC.get("merchant")).isEqualTo("M-1");
+    }
+
+    @Test
+    void shouldNotCarryContextIntoTasksSubmittedWithoutOne() throws Exception {
+        // Given
+        executor = new AsyncHttpExecutor(properties);
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        MDC.put("merchant", "M-1");
+        CompletableFuture.runAsync(() -> { }, executor).get(5, TimeUnit.SECONDS);
+        CorrelationContext.clear();
+        MDC.clear();
+
+        // When
+        String seen = CompletableFuture
+                .supplyAsync(() -> CorrelationContext.getRequestId() + "/" + MDC.get("merchant"), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(seen).isEqualTo("null/null");
+    }
+
+    @Test
+    void shouldLetRunningTasksFinishWithinShutdownTimeout() throws InterruptedException {
+        // Given
+        executor = new AsyncHttpExecutor(properties);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        executor.execute(() -> {
+            started.countDown();
+            sleep(Duration.ofMillis(200));
+            finished.set(true);
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // When
+        executor.destroy();
+
+        // Then
+        assertThat(finished).isTrue();
+    }
+
+    @Test
+    void shouldInterruptTasksStillRunningAfterShutdownTimeout() throws InterruptedException {
+        // Given
+        properties.getAsync().setShutdownTimeout(Duration.ofMillis(100));
+        executor = new AsyncHttpExecutor(properties);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        started.await(5, TimeUnit.SECONDS);
+
+        // When
+        long start = System.nanoTime();
+        executor.destroy();
+
+        // Then
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Transport;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpTransportFactoryTest {
+
+    private HttpServer server;
+    private RestTemplateConfigProperties properties;
+    private HttpTransportFactory transportFactory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{\"status\":\"APPROVED\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        properties = new RestTemplateConfigProperties();
+        properties.getTransport().setMode(Transport.Mode.POOLED);
+        properties.getTransport().setLeaseTimeout(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (transportFactory != null) {
+            transportFactory.destroy();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void shouldWaitAtMostLeaseTimeoutForConnectionToSameRoute() throws IOException {
+        // Given
+        properties.getTransport().setMaxConnectionsPerRoute(1);
+        transportFactory = new HttpTransportFactory(properties, new PaymentMetricsProperties());
+        ClientHttpRequestFactory requestFactory = transportFactory.createRequestFactory();
+
+        try (ClientHttpResponse held = execute(requestFactory, "127.0.0.1")) {
+            // When
+            long start = System.nanoTime();
+
+            // Then
+            assertThatThrownBy(() -> execute(requestFactory, "127.0.0.1"))
+                    .isInstanceOf(ConnectionRequestTimeoutException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+            try (ClientHttpResponse otherRoute = execute(requestFactory, "localhost")) {
+                assertThat(otherRoute.getStatusCode()).isEqualTo(HttpStatus.OK);
+            }
+        }
+    }
+
+    @Test
+    void shouldLimitConnectionsInTotal() throws IOException {
+        // Given
+        properties.getTransport().setMaxConnectionsTotal(1);
+        transportFactory = new HttpTransportFactory(properties, new PaymentMetricsProperties());
+        ClientHttpRequestFactory requestFactory = transportFactory.createRequestFactory();
+
+        try (ClientHttpResponse held = execute(requestFactory, "127.0.0.1")) {
+            // When & Then
+            assertThat(transportFactory.getPoolStats().getLeased()).isEqualTo(1);
+            assertThatThrownBy(() -> execute(requestFactory, "localhost"))
+                    .isInstanceOf(ConnectionRequestTimeoutException.class);
+        }
+    }
+
+    @Test
+    void shouldEvictIdleConnections() throws Exception {
+        // Given
+        properties.getTransport().setMaxIdleTime(Duration.ofMillis(200));
+        transportFactory = new HttpTransportFactory(properties, new PaymentMetricsProperties());
+        try (ClientHttpResponse response = execute(transportFactory.createRequestFactory(), "127.0.0.1")) {
+            response.getBody().readAllBytes();
+        }
+        assertThat(transportFactory.getPoolStats().getAvailable()).isEqualTo(1);
+
+        // When
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (transportFactory.getPoolStats().getAvailable() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertThat(transportFactory.getPoolStats().getAvailable()).isZero();
+    }
+
+    @Test
+    void shouldPublishPoolGaugesForHttp2() throws IOException {
+        // Given
+        properties.getTransport().setMode(Transport.Mode.HTTP2);
+        properties.getTransport().setMaxConnectionsTotal(4);
+        transportFactory = new HttpTransportFactory(properties, new PaymentMetricsProperties());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        transportFactory.bindTo(registry);
+
+        try (ClientHttpResponse held = execute(transportFactory.createRequestFactory(), "127.0.0.1")) {
+            // When & Then
+            assertThat(held.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.connections").tag("state", "leased")
+                    .tag("service_name", "paymend-service").gauge().value()).isEqualTo(1);
+            assertThat(registry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(4);
+        }
+        assertThat(transportFactory.getPoolStats().getLeased()).isZero();
+    }
+
+    private ClientHttpResponse execute(ClientHttpRequestFactory requestFactory, String host) throws IOException {
+        URI uri = URI.create("http://" + host + ":" + server.getAddress().getPort() + "/v1/payments");
+        return requestFactory.createRequest(uri, HttpMethod.GET).execute();
+    }
+}
@@ -0,0 +1,143 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+class RequestCoalescerTest {
+
+    private static final String URI = "https://auth.example.com/oauth/token";
+
+    private RequestCoalescer requestCoalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getSingleFlight().setEnabled(true);
+        requestCoalescer = new RequestCoalescer(properties);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareInFlightCallBetweenConcurrentCallers() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> call = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "token";
+        };
+
+        // When
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(CompletableFuture.supplyAsync(
+                    () -> requestCoalescer.execute(HttpMethod.GET, URI, Map.of("X-Api-Key", "k1"), String.class, call),
+                    executor));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("token");
+        }
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPropagateFailureToAllWaitingCallers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> call = () -> {
+            await(release);
+            throw new IllegalStateException("downstream unavailable");
+        };
+
+        // When
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(
+                () -> requestCoalescer.execute(HttpMethod.GET, URI, Map.of(), String.class, call), executor);
+        Thread.sleep(50);
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(
+                () -> requestCoalescer.execute(HttpMethod.GET, URI, Map.of(), String.class, () -> "unused"), executor);
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("downstream unavailable");
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("downstream unavailable");
+    }
+
+    @Test
+    void shouldNotCoalesceRequestsWithDifferentKeyHeaders() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> call = () -> {
+            int n = calls.incrementAndGet();
+            await(release);
+            return "token-" + n;
+        };
+
+        // When
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+                () -> requestCoalescer.execute(HttpMethod.GET, URI, Map.of("Authorization", "a"), String.class, call),
+                executor);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(
+                () -> requestCoalescer.execute(HttpMethod.GET, URI, Map.of("authorization", "b"), String.class, call),
+                executor);
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isNotEqualTo(second.get(5, TimeUnit.SECONDS));
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotReuseCompletedCalls() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        requestCoalescer.execute(HttpMethod.GET, URI, Map.of(), String.class, () -> "t" + calls.incrementAndGet());
+        String second = requestCoalescer.execute(HttpMethod.GET, URI, Map.of(), String.class,
+                () -> "t" + calls.incrementAndGet());
+
+        // Then
+        assertThat(second).isEqualTo("t2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
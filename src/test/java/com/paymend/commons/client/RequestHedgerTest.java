@@ -0,0 +1,203 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.interceptor.AdaptiveConcurrencyInterceptor;
+import com.paymend.commons.interceptor.CircuitBreakerInterceptor;
+import com.paymend.commons.interceptor.CorrelationIdInterceptor;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+import com.paymend.commons.resilience.AdaptiveConcurrencyLimiter;
+import com.paymend.commons.resilience.CircuitBreaker;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestHedgerTest {
+
+    private static final String URI = "https://api.paysight.com/v1/bins/411111";
+
+    private RestTemplateConfigProperties properties;
+    private AsyncHttpExecutor asyncHttpExecutor;
+    private RequestHedger requestHedger;
+
+    @BeforeEach
+    void setUp() {
+        CorrelationContext.clear();
+        properties = new RestTemplateConfigProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofMillis(20));
+        asyncHttpExecutor = new AsyncHttpExecutor(properties);
+        requestHedger = new RequestHedger(properties, new ClientNameResolver(properties), asyncHttpExecutor,
+                new CorrelationIdInterceptor(properties.getCorrelation()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncHttpExecutor.destroy();
+        CorrelationContext.clear();
+    }
+
+    @Test
+    void shouldReturnHedgedResponseWhenPrimaryIsSlow() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = requestHedger.execute(URI, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(5_000);
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("hedge");
+        assertThat(attempts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotHedgeFastResponses() {
+        // Given
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = requestHedger.execute(URI, () -> {
+            attempts.incrementAndGet();
+            return "primary";
+        });
+
+        // Then
+        assertThat(result).isEqualTo("primary");
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShareRequestIdBetweenPrimaryAndHedge() {
+        // Given
+        CorrelationContext.setRequestId("REQ-HEDGE00001");
+        Set<String> requestIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        requestHedger.execute(URI, () -> {
+            requestIds.add(CorrelationContext.getRequestId());
+            if (attempts.incrementAndGet() == 1) {
+                sleep(200);
+            }
+            return "ok";
+        });
+
+        // Then
+        assertThat(requestIds).containsExactly("REQ-HEDGE00001");
+    }
+
+    @Test
+    void shouldNotLeaveGeneratedRequestIdOnCallerThread() {
+        // Given
+        Set<String> requestIds = ConcurrentHashMap.newKeySet();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        requestHedger.execute(URI, () -> {
+            requestIds.add(CorrelationContext.getRequestId());
+            if (attempts.incrementAndGet() == 1) {
+                sleep(200);
+            }
+            return "ok";
+        });
+
+        // Then
+        assertThat(requestIds).hasSize(1).doesNotContainNull();
+        assertThat(CorrelationContext.hasRequestId()).isFalse();
+    }
+
+    @Test
+    void shouldNotCountCancelledHedgeAgainstBreakerOrLimiter() throws InterruptedException {
+        // Given
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        CircuitBreakerInterceptor circuitBreakerInterceptor = new CircuitBreakerInterceptor(
+                new ClientNameResolver(properties), properties.getCircuitBreaker());
+        AdaptiveConcurrencyInterceptor concurrencyInterceptor = new AdaptiveConcurrencyInterceptor(
+                new ClientNameResolver(properties),
+                new PaymentMetrics(new SimpleMeterRegistry(), new PaymentMetricsProperties()),
+                properties.getConcurrencyLimit());
+        CircuitBreaker circuitBreaker = circuitBreakerInterceptor.getCircuitBreaker("api.paysight.com");
+        AdaptiveConcurrencyLimiter limiter = concurrencyInterceptor.getLimiter("api.paysight.com");
+        int initialLimit = limiter.getLimit();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch primaryDone = new CountDownLatch(1);
+        ClientHttpRequestExecution network = (request, body) -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("cancelled");
+                } finally {
+                    primaryDone.countDown();
+                }
+            }
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+
+        // When
+        HttpStatus status = requestHedger.execute(URI, () -> {
+            try (ClientHttpResponse response = circuitBreakerInterceptor.intercept(
+                    new MockClientHttpRequest(HttpMethod.GET, java.net.URI.create(URI)), new byte[0],
+                    (request, body) -> concurrencyInterceptor.intercept(request, body, network))) {
+                return HttpStatus.valueOf(response.getStatusCode().value());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(primaryDone.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50);
+
+        // Then
+        assertThat(status).isEqualTo(HttpStatus.OK);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(limiter.getLimit()).isEqualTo(initialLimit);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldPropagateFailureWhenBothCallsFail() {
+        // When & Then
+        assertThatThrownBy(() -> requestHedger.execute(URI, () -> {
+            sleep(50);
+            throw new IllegalStateException("downstream unavailable");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("downstream unavailable");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+class ResponseBufferingClientHttpRequestFactoryTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+
+    @Test
+    void shouldLetResponseBodyBeReadTwice() throws IOException {
+        // Given
+        MockClientHttpRequest target = new MockClientHttpRequest(HttpMethod.GET, PAYSIGHT);
+        target.setResponse(new MockClientHttpResponse("{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8),
+                HttpStatus.OK));
+        ResponseBufferingClientHttpRequestFactory factory =
+                new ResponseBufferingClientHttpRequestFactory((uri, method) -> target);
+
+        // When
+        try (ClientHttpResponse response = factory.createRequest(PAYSIGHT, HttpMethod.GET).execute()) {
+            String first = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+            String second = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+
+            // Then
+            assertThat(first).isEqualTo("{\"status\":\"ok\"}");
+            assertThat(second).isEqualTo(first);
+        }
+    }
+
+    @Test
+    void shouldWriteRequestBodyStraightToTheUnderlyingRequest() throws IOException {
+        // Given
+        MockClientHttpRequest target = new MockClientHttpRequest(HttpMethod.POST, PAYSIGHT);
+        ResponseBufferingClientHttpRequestFactory factory =
+                new ResponseBufferingClientHttpRequestFactory((uri, method) -> target);
+        byte[] body = "{\"amount\":100}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        ClientHttpRequest request = factory.createRequest(PAYSIGHT, HttpMethod.POST);
+        ((StreamingHttpOutputMessage) request).setBody(outputStream -> outputStream.write(body));
+
+        // Then
+        assertThat(target.getBodyAsBytes()).isEqualTo(body);
+    }
+}
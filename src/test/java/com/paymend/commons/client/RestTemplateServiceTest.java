@@ -0,0 +1,224 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.slf4j.MDC;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymend.commons.config.MaskingConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+@ExtendWith(MockitoExtension.class)
+class RestTemplateServiceTest {
+
+    private static final String URI = "https://api.paysight.com/v1/payments";
+
+    @Mock
+    private AsyncHttpExecutor asyncHttpExecutor;
+
+    @Mock
+    private RequestHedger requestHedger;
+
+    @Mock
+    private RequestCoalescer requestCoalescer;
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+    private RestTemplateService restTemplateService;
+    private AsyncHttpExecutor realAsyncHttpExecutor;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+        restTemplateService = createService(new RestTemplateConfigProperties(), asyncHttpExecutor);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (realAsyncHttpExecutor != null) {
+            realAsyncHttpExecutor.destroy();
+        }
+        CorrelationContext.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void shouldPostBodyAsUtf8Json() {
+        // Given
+        server.expect(requestTo(URI))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(header("x-api-key", "secret"))
+                .andExpect(content().json("{\"amount\":1000,\"holder\":\"Zoë Ñúñez\"}", true))
+                .andRespond(withSuccess("{\"status\":\"APPROVED\"}", MediaType.APPLICATION_JSON));
+
+        // When
+        ResponseEntity<Map> response = restTemplateService.postWithBodyLogging(restTemplate,
+                Map.of("amount", 1000, "holder", "Zoë Ñúñez"), URI, Map.of("x-api-key", "secret"), Map.class);
+
+        // Then
+        server.verify();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsEntry("status", "APPROVED");
+    }
+
+    @Test
+    void shouldKeepExplicitContentType() {
+        // Given
+        server.expect(requestTo(URI))
+                .andExpect(method(HttpMethod.PUT))
+                .andExpect(header("Content-Type", "application/vnd.paysight+json"))
+                .andRespond(withSuccess());
+
+        // When
+        restTemplateService.putWithBodyLogging(restTemplate, Map.of("amount", 1000), URI,
+                Map.of("Content-Type", "application/vnd.paysight+json"), Void.class);
+
+        // Then
+        server.verify();
+    }
+
+    @Test
+    void shouldRunAsyncCallOnVirtualThreadWithCallerContext() throws Exception {
+        // Given
+        RestTemplateService service = createServiceWithRealExecutor();
+        List<String> seen = new CopyOnWriteArrayList<>();
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            seen.add(Thread.currentThread().isVirtual() + "/" + CorrelationContext.getRequestId() + "/"
+                    + MDC.get("merchant"));
+            return execution.execute(request, body);
+        });
+        server.expect(requestTo(URI))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"status\":\"APPROVED\"}", MediaType.APPLICATION_JSON));
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        MDC.put("merchant", "M-1");
+
+        // When
+        ResponseEntity<Map> response = service.getWithHeaderLoggingAsync(restTemplate, URI, Map.of(), Map.class)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        server.verify();
+        assertThat(response.getBody()).containsEntry("status", "APPROVED");
+        assertThat(seen).containsExactly("true/REQ-123456789ABC/M-1");
+        assertThat(CorrelationContext.getRequestId()).isEqualTo("REQ-123456789ABC");
+    }
+
+    @Test
+    void shouldFailAsyncCallWithTheHttpException() {
+        // Given
+        RestTemplateService service = createServiceWithRealExecutor();
+        server.expect(requestTo(URI)).andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo(URI)).andRespond(withServerError());
+
+        // When
+        CompletableFuture<ResponseEntity<Void>> notFound =
+                service.deleteWithHeaderLoggingAsync(restTemplate, URI, Map.of(), Void.class);
+        notFound.exceptionally(e -> null).join();
+        CompletableFuture<ResponseEntity<Map>> serverError =
+                service.putWithBodyLoggingAsync(restTemplate, Map.of("amount", 1000), URI, Map.of(), Map.class);
+
+        // Then
+        assertThat(notFound).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOfSatisfying(HttpClientErrorException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThat(serverError).failsWithin(Duration.ofSeconds(5))
+                .withThrowableOfType(ExecutionException.class)
+                .havingRootCause()
+                .isInstanceOf(HttpServerErrorException.class);
+    }
+
+    @Test
+    void shouldLogAllHeadersOfACallInOneRecord() {
+        // Given
+        TrafficLogger trafficLogger = mock(TrafficLogger.class);
+        List<String> records = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Object[] arguments = Arrays.copyOfRange(invocation.getArguments(), 2, invocation.getArguments().length);
+            records.add(MessageFormatter.arrayFormat(invocation.getArgument(1), arguments).getMessage());
+            return null;
+        }).when(trafficLogger).info(any(), any(), any(Object[].class));
+        RestTemplateService service = createService(new RestTemplateConfigProperties(), asyncHttpExecutor,
+                trafficLogger);
+        server.expect(requestTo(URI))
+                .andExpect(header("x-api-key", "secret"))
+                .andRespond(withSuccess());
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-api-key", "secret");
+        headers.put("x-merchant-id", "M-1");
+        headers.put("Accept", "application/json");
+
+        // When
+        service.getWithHeaderLogging(restTemplate, URI, headers, Void.class);
+
+        // Then
+        server.verify();
+        assertThat(records).hasSize(3);
+        assertThat(records.get(1)).isEqualTo("Headers:\nx-api-key: " + HeaderMasker.MASK
+                + "\nx-merchant-id: M-1\nAccept: application/json\n");
+    }
+
+    private RestTemplateService createServiceWithRealExecutor() {
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        realAsyncHttpExecutor = new AsyncHttpExecutor(properties);
+        return createService(properties, realAsyncHttpExecutor);
+    }
+
+    private RestTemplateService createService(RestTemplateConfigProperties properties, AsyncHttpExecutor executor) {
+        return createService(properties, executor, new TrafficLogger(properties, new PaymentMetricsProperties()));
+    }
+
+    private RestTemplateService createService(RestTemplateConfigProperties properties, AsyncHttpExecutor executor,
+            TrafficLogger trafficLogger) {
+        JsonBodyWriter jsonBodyWriter = new JsonBodyWriter(new ObjectMapper(), properties);
+        MaskingConfigProperties maskingProperties = new MaskingConfigProperties();
+        return new RestTemplateService(jsonBodyWriter, new HeaderMasker(maskingProperties),
+                new JsonBodyRedactor(maskingProperties), executor, requestHedger, requestCoalescer, trafficLogger,
+                new LoggingPolicyResolver(properties, new ClientNameResolver(properties)));
+    }
+}
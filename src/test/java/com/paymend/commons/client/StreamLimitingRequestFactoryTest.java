@@ -0,0 +1,88 @@
+package com.paymend.commons.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class StreamLimitingRequestFactoryTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+    private static final URI EVERVAULT = URI.create("https://api.evervault.com/inspect");
+
+    private StreamLimitingRequestFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        factory = new StreamLimitingRequestFactory((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            request.setResponse(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+            return request;
+        }, 2, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void shouldLimitExchangesPerHostUntilResponseIsClosed() throws IOException {
+        // Given
+        ClientHttpResponse first = factory.createRequest(PAYSIGHT, HttpMethod.GET).execute();
+
+        // When & Then
+        assertThatThrownBy(() -> factory.createRequest(PAYSIGHT, HttpMethod.GET).execute())
+                .isInstanceOf(ConnectionRequestTimeoutException.class);
+        try (ClientHttpResponse other = factory.createRequest(EVERVAULT, HttpMethod.GET).execute()) {
+            assertThat(factory.getLeased()).isEqualTo(2);
+        }
+        first.close();
+        first.close();
+        try (ClientHttpResponse second = factory.createRequest(PAYSIGHT, HttpMethod.GET).execute()) {
+            assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(factory.getLeased()).isZero();
+    }
+
+    @Test
+    void shouldLimitExchangesInTotal() throws IOException {
+        // Given
+        URI third = URI.create("https://api.example.com/");
+        try (ClientHttpResponse paysight = factory.createRequest(PAYSIGHT, HttpMethod.GET).execute();
+             ClientHttpResponse evervault = factory.createRequest(EVERVAULT, HttpMethod.GET).execute()) {
+
+            // When & Then
+            assertThatThrownBy(() -> factory.createRequest(third, HttpMethod.GET).execute())
+                    .isInstanceOf(ConnectionRequestTimeoutException.class);
+        }
+        assertThat(factory.getLeased()).isZero();
+    }
+
+    @Test
+    void shouldForgetHostsWithoutExchanges() throws IOException {
+        // Given
+        ClientHttpResponse held = factory.createRequest(PAYSIGHT, HttpMethod.GET).execute();
+        assertThatThrownBy(() -> factory.createRequest(PAYSIGHT, HttpMethod.GET).execute())
+                .isInstanceOf(ConnectionRequestTimeoutException.class);
+        for (int i = 0; i < 100; i++) {
+            factory.createRequest(URI.create("https://merchant-" + i + ".example.com/"), HttpMethod.GET)
+                    .execute()
+                    .close();
+        }
+
+        // When
+        int whileHeld = factory.getHostCount();
+        held.close();
+
+        // Then
+        assertThat(whileHeld).isEqualTo(1);
+        assertThat(factory.getHostCount()).isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package com.paymend.commons.context;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Binding a request-id around a task and reading it back, with each {@link CorrelationStorage}.
+ * {@code bindAndRead} is what every filtered request and async call pays; {@code readInScope} is the
+ * cost of one lookup, as done by the correlation and logging interceptors.
+ * See "Benchmarks" in the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class CorrelationContextBenchmark {
+
+    private static final String REQUEST_ID = "REQ-123456789ABC";
+    private static final int READS = 8;
+
+    @Param({"threadLocal", "scopedValue"})
+    private String storage;
+
+    private CorrelationStorage previous;
+
+    @Setup
+    public void setUp() {
+        previous = CorrelationContext.getStorage();
+        CorrelationContext.useStorage("scopedValue".equals(storage)
+                ? new ScopedValueCorrelationStorage()
+                : new ThreadLocalCorrelationStorage());
+    }
+
+    @TearDown
+    public void tearDown() {
+        CorrelationContext.useStorage(previous);
+    }
+
+    @Benchmark
+    public String bindAndRead() throws Exception {
+        return CorrelationContext.call(REQUEST_ID, CorrelationContext::getRequestId);
+    }
+
+    @Benchmark
+    public void readInScope(Blackhole blackhole) throws Exception {
+        CorrelationContext.call(REQUEST_ID, () -> {
+            for (int i = 0; i < READS; i++) {
+                blackhole.consume(CorrelationContext.getRequestId());
+            }
+            return null;
+        });
+    }
+}
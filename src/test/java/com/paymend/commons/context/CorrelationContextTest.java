@@ -1,6 +1,9 @@
 package com.paymend.commons.context;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -95,4 +98,39 @@ class CorrelationContextTest {
         assertThat(CorrelationContext.getRequestId()).isNull();
         assertThat(CorrelationContext.hasRequestId()).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldBindRequestIdForTheDurationOfRun() {
+        // Given
+        CorrelationContext.setRequestId("REQ-OUTER");
+        String[] seen = new String[1];
+
+        // When
+        CorrelationContext.run("REQ-INNER", () -> seen[0] = CorrelationContext.getRequestId());
+
+        // Then
+        assertThat(seen[0]).isEqualTo("REQ-INNER");
+        assertThat(CorrelationContext.getRequestId()).isEqualTo("REQ-OUTER");
+    }
+
+    @Test
+    void shouldKeepCurrentContextWhenCallingWithoutRequestId() throws Exception {
+        // Given
+        CorrelationContext.setRequestId("REQ-OUTER");
+
+        // When
+        String seen = CorrelationContext.call(null, CorrelationContext::getRequestId);
+
+        // Then
+        assertThat(seen).isEqualTo("REQ-OUTER");
+    }
+
+    @Test
+    void shouldPropagateCheckedExceptionFromCall() {
+        // When & Then
+        assertThatThrownBy(() -> CorrelationContext.call("REQ-123456789ABC", () -> {
+            throw new IOException("boom");
+        })).isInstanceOf(IOException.class).hasMessage("boom");
+        assertThat(CorrelationContext.getRequestId()).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package com.paymend.commons.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+class CorrelationExecutorsTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        CorrelationContext.clear();
+        MDC.clear();
+        pool = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        CorrelationContext.clear();
+        MDC.clear();
+    }
+
+    @Test
+    void shouldPropagateRequestIdAndMdcToCompletableFuture() throws Exception {
+        // Given
+        ExecutorService executor = CorrelationExecutors.wrap(pool);
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        MDC.put("merchant", "M-1");
+
+        // When
+        String seen = CompletableFuture
+                .supplyAsync(() -> CorrelationContext.getRequestId() + "/" + MDC.get("merchant"), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(seen).isEqualTo("REQ-123456789ABC/M-1");
+    }
+
+    @Test
+    void shouldRestoreWorkerContextAfterTask() throws Exception {
+        // Given
+        ExecutorService executor = CorrelationExecutors.wrap(pool);
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        MDC.put("merchant", "M-1");
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+        // When
+        String leftover = pool.submit(() -> CorrelationContext.getRequestId() + "/" + MDC.get("merchant"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(leftover).isEqualTo("null/null");
+    }
+
+    @Test
+    void shouldPropagateToScheduledAndDecoratedTasks() throws Exception {
+        // Given
+        ScheduledExecutorService scheduler = CorrelationExecutors.wrap(Executors.newSingleThreadScheduledExecutor());
+        CorrelationContext.setRequestId("REQ-123456789ABC");
+        String[] decorated = new String[1];
+        Runnable task = new CorrelationTaskDecorator().decorate(() -> decorated[0] = CorrelationContext.getRequestId());
+
+        try {
+            // When
+            String scheduled = scheduler.schedule(CorrelationContext::getRequestId, 1, TimeUnit.MILLISECONDS)
+                    .get(5, TimeUnit.SECONDS);
+            pool.submit(task).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(scheduled).isEqualTo("REQ-123456789ABC");
+            assertThat(decorated[0]).isEqualTo("REQ-123456789ABC");
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRunTaskWithoutContextWithEmptyContext() throws Exception {
+        // Given
+        ExecutorService executor = CorrelationExecutors.wrap(pool);
+        pool.submit(() -> {
+            CorrelationContext.setRequestId("REQ-LEFTOVER0001");
+            MDC.put("merchant", "M-1");
+        }).get(5, TimeUnit.SECONDS);
+
+        // When
+        String seen = executor.submit(() -> CorrelationContext.getRequestId() + "/" + MDC.get("merchant"))
+                .get(5, TimeUnit.SECONDS);
+        String leftover = pool.submit(CorrelationContext::getRequestId).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(seen).isEqualTo("null/null");
+        assertThat(leftover).isEqualTo("REQ-LEFTOVER0001");
+    }
+
+    @Test
+    void shouldHideWorkerRequestIdWithScopedValueStorage() throws Exception {
+        // Given
+        assumeTrue(ScopedValueCorrelationStorage.isSupported(), "ScopedValue not available");
+        CorrelationStorage previous = CorrelationContext.getStorage();
+        CorrelationContext.useStorage(new ScopedValueCorrelationStorage());
+        try {
+            Callable<String> task = CorrelationExecutors.wrap(CorrelationContext::getRequestId);
+            CorrelationContext.setRequestId("REQ-LEFTOVER0001");
+
+            // When
+            String seen = task.call();
+
+            // Then
+            assertThat(seen).isNull();
+            assertThat(CorrelationContext.getRequestId()).isEqualTo("REQ-LEFTOVER0001");
+        } finally {
+            CorrelationContext.clear();
+            CorrelationContext.useStorage(previous);
+        }
+    }
+}
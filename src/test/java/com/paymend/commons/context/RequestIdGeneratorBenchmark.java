@@ -0,0 +1,43 @@
+package com.paymend.commons.context;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generating one default request-id ({@code REQ-} and 12 characters): the previous {@code UUID.randomUUID()}
+ * based id against {@link SortableRequestIdGenerator}, from several threads at once.
+ * See "Benchmarks" in the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+@Threads(4)
+public class RequestIdGeneratorBenchmark {
+
+    private final SortableRequestIdGenerator generator = new SortableRequestIdGenerator();
+
+    @Benchmark
+    public String legacyUuid() {
+        String uuid = UUID.randomUUID().toString().replace("-", "");
+        return "REQ-" + uuid.substring(0, 12).toUpperCase();
+    }
+
+    @Benchmark
+    public String sortable() {
+        return generator.generate("REQ-", 18);
+    }
+}
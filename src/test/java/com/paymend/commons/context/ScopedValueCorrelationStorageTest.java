@@ -0,0 +1,70 @@
+package com.paymend.commons.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScopedValueCorrelationStorageTest {
+
+    private CorrelationStorage previous;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ScopedValueCorrelationStorage.isSupported(), "ScopedValue not available");
+        previous = CorrelationContext.getStorage();
+        CorrelationContext.useStorage(new ScopedValueCorrelationStorage());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (previous != null) {
+            CorrelationContext.clear();
+            CorrelationContext.useStorage(previous);
+        }
+    }
+
+    @Test
+    void shouldRestoreOuterBindingAfterNestedCall() throws Exception {
+        // When
+        String[] inner = new String[1];
+        String outer = CorrelationContext.call("REQ-OUTER", () -> {
+            CorrelationContext.run("REQ-INNER", () -> inner[0] = CorrelationContext.getRequestId());
+            return CorrelationContext.getRequestId();
+        });
+
+        // Then
+        assertThat(inner[0]).isEqualTo("REQ-INNER");
+        assertThat(outer).isEqualTo("REQ-OUTER");
+        assertThat(CorrelationContext.getRequestId()).isNull();
+    }
+
+    @Test
+    void shouldPreferScopeOverRequestIdSetByHand() throws Exception {
+        // Given
+        CorrelationContext.setRequestId("REQ-SET");
+
+        // When
+        String seen = CorrelationContext.call("REQ-BOUND", CorrelationContext::getRequestId);
+
+        // Then
+        assertThat(seen).isEqualTo("REQ-BOUND");
+        assertThat(CorrelationContext.getRequestId()).isEqualTo("REQ-SET");
+    }
+
+    @Test
+    void shouldPropagateExceptionsFromScope() {
+        // When & Then
+        assertThatThrownBy(() -> CorrelationContext.call("REQ-123456789ABC", () -> {
+            throw new IOException("boom");
+        })).isInstanceOf(IOException.class).hasMessage("boom");
+        assertThatThrownBy(() -> CorrelationContext.run("REQ-123456789ABC", () -> {
+            throw new IllegalArgumentException("bad");
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+}
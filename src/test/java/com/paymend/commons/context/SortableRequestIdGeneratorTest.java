@@ -0,0 +1,85 @@
+package com.paymend.commons.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SortableRequestIdGeneratorTest {
+
+    private static final String CROCKFORD = "[0-9A-HJKMNP-TV-Z]";
+
+    @Test
+    void shouldKeepPrefixAndLength() {
+        // Given
+        SortableRequestIdGenerator generator = new SortableRequestIdGenerator();
+
+        // When & Then
+        assertThat(generator.generate("REQ-", 12)).matches("REQ-" + CROCKFORD + "{12}");
+        assertThat(generator.generate("TXN-", 8)).matches("TXN-" + CROCKFORD + "{8}");
+        assertThat(generator.generate("", 26)).matches(CROCKFORD + "{26}");
+        assertThat(generator.generate(null, 40)).matches(CROCKFORD + "{40}");
+    }
+
+    @Test
+    void shouldSortByCreationTime() {
+        // Given
+        AtomicLong clock = new AtomicLong(1_760_000_000_000L);
+        SortableRequestIdGenerator generator = new SortableRequestIdGenerator(clock::get, 7);
+
+        // When
+        String first = generator.generate("REQ-", 18);
+        clock.addAndGet(1);
+        String second = generator.generate("REQ-", 18);
+        clock.addAndGet(86_400_000L);
+        String third = generator.generate("REQ-", 18);
+
+        // Then
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+        assertThat(first.substring(0, 12)).isNotEqualTo(second.substring(0, 12));
+    }
+
+    @Test
+    void shouldEmbedNodeInLongIds() {
+        // Given
+        SortableRequestIdGenerator generator = new SortableRequestIdGenerator(() -> 1_760_000_000_000L, 33);
+
+        // When
+        String id = generator.generate("", 20);
+
+        // Then
+        assertThat(id.substring(8, 10)).isEqualTo("11");
+    }
+
+    @Test
+    void shouldNotRepeatWithinTheSameMillisecond() {
+        // Given
+        SortableRequestIdGenerator generator = new SortableRequestIdGenerator(() -> 1_760_000_000_000L, 0);
+        Set<String> ids = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(generator.generate("REQ-", 18));
+        }
+
+        // Then
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @Test
+    void shouldKeepShortIdsRandomThroughout() {
+        // Given
+        SortableRequestIdGenerator generator = new SortableRequestIdGenerator(() -> 1_760_000_000_000L, 0);
+
+        // When
+        List<String> ids = List.of(generator.generate("", 12), generator.generate("", 12), generator.generate("", 12));
+
+        // Then
+        assertThat(ids).extracting(id -> id.substring(0, 4)).doesNotHaveDuplicates();
+    }
+}
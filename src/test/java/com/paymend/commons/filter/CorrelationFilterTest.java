@@ -0,0 +1,107 @@
+package com.paymend.commons.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.paymend.commons.context.CorrelationContext;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+
+class CorrelationFilterTest {
+
+    private final CorrelationFilter filter = new CorrelationFilter();
+    private final List<String> seen = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        CorrelationContext.clear();
+    }
+
+    @Test
+    void shouldBindRequestIdWhileProcessingAndClearAfterwards() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seen.add(CorrelationContext.getRequestId()));
+
+        // Then
+        assertThat(seen).containsExactly("REQ-123456789ABC");
+        assertThat(CorrelationContext.getRequestId()).isNull();
+    }
+
+    @Test
+    void shouldKeepRequestIdForAsyncTasksAndListeners() throws Exception {
+        // Given
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+        AsyncContext[] asyncContext = new AsyncContext[1];
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            asyncContext[0] = req.startAsync(req, res);
+            asyncContext[0].addListener(new RecordingListener());
+        });
+        String afterHandOver = CorrelationContext.getRequestId();
+        asyncContext[0].start(() -> seen.add("start:" + CorrelationContext.getRequestId()));
+        asyncContext[0].complete();
+
+        // Then
+        assertThat(afterHandOver).isNull();
+        assertThat(seen).containsExactly("start:REQ-123456789ABC", "complete:REQ-123456789ABC");
+        assertThat(CorrelationContext.getRequestId()).isNull();
+    }
+
+    @Test
+    void shouldRebindRequestIdOnAsyncDispatch() throws Exception {
+        // Given
+        MockHttpServletRequest dispatch = new MockHttpServletRequest("GET", "/payments");
+        dispatch.setDispatcherType(DispatcherType.ASYNC);
+        dispatch.setAttribute(CorrelationFilter.REQUEST_ID_ATTRIBUTE, "REQ-123456789ABC");
+
+        // When
+        filter.doFilter(dispatch, new MockHttpServletResponse(),
+                (req, res) -> seen.add(CorrelationContext.getRequestId()));
+
+        // Then
+        assertThat(seen).containsExactly("REQ-123456789ABC");
+        assertThat(CorrelationContext.getRequestId()).isNull();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/payments");
+        request.addHeader(CorrelationFilter.REQUEST_ID_HEADER, "REQ-123456789ABC");
+        return request;
+    }
+
+    private class RecordingListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            seen.add("complete:" + CorrelationContext.getRequestId());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.paymend.commons.client.AsyncHttpExecutor;
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.client.RequestHedger;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+import com.paymend.commons.resilience.AdaptiveConcurrencyLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyInterceptorTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+
+    private RestTemplateConfigProperties properties;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        properties.getConcurrencyLimit().setEnabled(true);
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRejectAfterMaxWaitDurationWhenLimitIsReached() throws Exception {
+        // Given
+        limitTo(1);
+        properties.getConcurrencyLimit().setMaxWaitDuration(Duration.ofMillis(100));
+        AdaptiveConcurrencyInterceptor interceptor = createInterceptor();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                interceptor.intercept(request(), new byte[0], (request, body) -> {
+                    inFlight.countDown();
+                    await(release);
+                    return ok();
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> interceptor.intercept(request(), new byte[0], (request, body) -> ok()))
+                .isInstanceOf(CallNotPermittedException.class);
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+        release.countDown();
+        holder.join();
+
+        // Then
+        assertThat(waited).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(registry.get("custom.stackdriver.http_client.concurrency.rejected").tag("client", "api.paysight.com")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.concurrency.queue_time")
+                .tag("client", "api.paysight.com").timer().max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+        try (ClientHttpResponse response = interceptor.intercept(request(), new byte[0], (request, body) -> ok())) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Test
+    void shouldReleaseSlotAndBackOffWhenCallFails() {
+        // Given
+        AdaptiveConcurrencyInterceptor interceptor = createInterceptor();
+        AdaptiveConcurrencyLimiter limiter = interceptor.getLimiter("api.paysight.com");
+        int initialLimit = limiter.getLimit();
+
+        // When
+        assertThatThrownBy(() -> interceptor.intercept(request(), new byte[0], (request, body) -> {
+            throw new IOException("Connection reset");
+        })).isInstanceOf(IOException.class);
+
+        // Then
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isLessThan(initialLimit);
+    }
+
+    @Test
+    void shouldReleaseSlotWithoutBackingOffWhenHedgeIsCancelled() throws Exception {
+        // Given
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setDelay(Duration.ofMillis(20));
+        AdaptiveConcurrencyInterceptor interceptor = createInterceptor();
+        AdaptiveConcurrencyLimiter limiter = interceptor.getLimiter("api.paysight.com");
+        int initialLimit = limiter.getLimit();
+        AsyncHttpExecutor asyncHttpExecutor = new AsyncHttpExecutor(properties);
+        RequestHedger requestHedger = new RequestHedger(properties, new ClientNameResolver(properties),
+                asyncHttpExecutor, new CorrelationIdInterceptor(properties.getCorrelation()));
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch primaryDone = new CountDownLatch(1);
+        ClientHttpRequestExecution network = (request, body) -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("cancelled");
+                } finally {
+                    primaryDone.countDown();
+                }
+            }
+            return ok();
+        };
+
+        try {
+            // When
+            HttpStatus status = requestHedger.execute(PAYSIGHT.toString(), () -> {
+                try (ClientHttpResponse response = interceptor.intercept(request(), new byte[0], network)) {
+                    return HttpStatus.valueOf(response.getStatusCode().value());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            assertThat(primaryDone.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50);
+
+            // Then
+            assertThat(status).isEqualTo(HttpStatus.OK);
+            assertThat(limiter.getInFlight()).isZero();
+            assertThat(limiter.getLimit()).isEqualTo(initialLimit);
+        } finally {
+            asyncHttpExecutor.destroy();
+        }
+    }
+
+    @Test
+    void shouldPublishLimitAndInFlightGaugesPerClient() throws Exception {
+        // Given
+        AdaptiveConcurrencyInterceptor interceptor = createInterceptor();
+        double[] inFlightDuringCall = new double[1];
+
+        // When
+        try (ClientHttpResponse response = interceptor.intercept(request(), new byte[0], (request, body) -> {
+            inFlightDuringCall[0] = registry.get("custom.stackdriver.http_client.concurrency.in_flight")
+                    .tag("client", "api.paysight.com").gauge().value();
+            return ok();
+        })) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        // Then
+        assertThat(inFlightDuringCall[0]).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.concurrency.in_flight").tag("service_name", "checkout")
+                .tag("client", "api.paysight.com").gauge().value()).isZero();
+        assertThat(registry.get("custom.stackdriver.http_client.concurrency.limit").tag("service_name", "checkout")
+                .tag("client", "api.paysight.com").gauge().value())
+                .isEqualTo(properties.getConcurrencyLimit().getInitialLimit());
+    }
+
+    private void limitTo(int limit) {
+        properties.getConcurrencyLimit().setInitialLimit(limit);
+        properties.getConcurrencyLimit().setMinLimit(limit);
+        properties.getConcurrencyLimit().setMaxLimit(limit);
+    }
+
+    private AdaptiveConcurrencyInterceptor createInterceptor() {
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        AdaptiveConcurrencyInterceptor interceptor = new AdaptiveConcurrencyInterceptor(
+                new ClientNameResolver(properties), new PaymentMetrics(registry, metricsProperties),
+                properties.getConcurrencyLimit());
+        interceptor.bindTo(registry);
+        return interceptor;
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.POST, PAYSIGHT);
+    }
+
+    private static ClientHttpResponse ok() {
+        return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
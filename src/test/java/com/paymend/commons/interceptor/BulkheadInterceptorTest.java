@@ -0,0 +1,139 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.CallNotPermittedException;
+import com.paymend.commons.resilience.CircuitBreaker;
+
+class BulkheadInterceptorTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+
+    private RestTemplateConfigProperties properties;
+    private BulkheadInterceptor bulkheadInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        bulkheadInterceptor = new BulkheadInterceptor(new ClientNameResolver(properties), properties.getBulkhead());
+    }
+
+    @Test
+    void shouldRejectCallsOverTheLimitAndReleaseOnCompletion() throws Exception {
+        // Given
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> {
+                    inFlight.countDown();
+                    await(release);
+                    return ok();
+                }).close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When & Then
+        assertThatThrownBy(() -> bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> ok()))
+                .isInstanceOf(CallNotPermittedException.class);
+        release.countDown();
+        holder.join();
+        try (ClientHttpResponse response = bulkheadInterceptor.intercept(request(), new byte[0],
+                (request, body) -> ok())) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Test
+    void shouldHoldPermitUntilResponseIsClosed() throws IOException {
+        // Given
+        ClientHttpResponse streaming = bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> ok());
+
+        // When & Then
+        assertThatThrownBy(() -> bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> ok()))
+                .isInstanceOf(CallNotPermittedException.class);
+        streaming.close();
+        streaming.close();
+        try (ClientHttpResponse response = bulkheadInterceptor.intercept(request(), new byte[0],
+                (request, body) -> ok())) {
+            // A second close must not have handed out an extra permit
+            assertThatThrownBy(() -> bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> ok()))
+                    .isInstanceOf(CallNotPermittedException.class);
+        }
+    }
+
+    @Test
+    void shouldReleasePermitWhenExchangeFails() throws IOException {
+        // When
+        assertThatThrownBy(() -> bulkheadInterceptor.intercept(request(), new byte[0], (request, body) -> {
+            throw new IOException("Connection reset");
+        })).isInstanceOf(IOException.class);
+
+        // Then
+        try (ClientHttpResponse response = bulkheadInterceptor.intercept(request(), new byte[0],
+                (request, body) -> ok())) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Test
+    void shouldNotOpenCircuitBreakerWhenBulkheadIsFull() throws Exception {
+        // Given
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        properties.getBulkhead().setMaxConcurrentCalls(0);
+        CircuitBreakerInterceptor circuitBreakerInterceptor = new CircuitBreakerInterceptor(
+                new ClientNameResolver(properties), properties.getCircuitBreaker());
+        BulkheadInterceptor fullBulkhead = new BulkheadInterceptor(
+                new ClientNameResolver(properties), properties.getBulkhead());
+        ClientHttpRequestExecution chain = (request, body) ->
+                fullBulkhead.intercept(request, body, (inner, innerBody) -> ok());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> circuitBreakerInterceptor.intercept(request(), new byte[0], chain))
+                    .isInstanceOf(CallNotPermittedException.class)
+                    .hasMessageContaining("Bulkhead");
+        }
+
+        // Then
+        assertThat(circuitBreakerInterceptor.getCircuitBreaker("api.paysight.com").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.POST, PAYSIGHT);
+    }
+
+    private static ClientHttpResponse ok() {
+        return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.resilience.CircuitBreaker;
+
+class CircuitBreakerInterceptorTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+
+    private RestTemplateConfigProperties properties;
+    private CircuitBreakerInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(1);
+        properties.getCircuitBreaker().setSlowCallDurationThreshold(Duration.ofMillis(50));
+        interceptor = new CircuitBreakerInterceptor(new ClientNameResolver(properties), properties.getCircuitBreaker());
+    }
+
+    @Test
+    void shouldCountSlowBodyTransferAsSlowCall() throws Exception {
+        // Given
+        ClientHttpResponse response = interceptor.intercept(request(), new byte[0],
+                (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+        CircuitBreaker circuitBreaker = interceptor.getCircuitBreaker("api.paysight.com");
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // When
+        Thread.sleep(100);
+        response.close();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldCountBodyReadFailureAsError() throws IOException {
+        // Given
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        // When
+        try (ClientHttpResponse response = interceptor.intercept(request(), new byte[0],
+                (request, body) -> new MockClientHttpResponse(broken, HttpStatus.OK))) {
+            assertThatThrownBy(() -> response.getBody().read()).isInstanceOf(IOException.class);
+        }
+
+        // Then
+        assertThat(interceptor.getCircuitBreaker("api.paysight.com").getState())
+                .isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldRecordOutcomeOnceWhenResponseIsClosedTwice() throws IOException {
+        // Given
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        ClientHttpResponse response = interceptor.intercept(request(), new byte[0],
+                (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY));
+
+        // When
+        response.close();
+        response.close();
+
+        // Then
+        assertThat(interceptor.getCircuitBreaker("api.paysight.com").getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.POST, PAYSIGHT);
+    }
+}
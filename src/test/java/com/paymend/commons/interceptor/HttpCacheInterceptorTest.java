@@ -0,0 +1,254 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+import com.paymend.commons.metrics.PaymentMetricsProperties.TagLimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HttpCacheInterceptorTest {
+
+    private static final String URI = "https://api.example.com/v1/bins/411111";
+
+    private final MutableClock clock = new MutableClock();
+    private RestTemplateConfigProperties properties;
+    private SimpleMeterRegistry registry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        registry = new SimpleMeterRegistry();
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(new ClientNameResolver(properties),
+                new PaymentMetrics(registry, metricsProperties), properties.getCache(), clock);
+        interceptor.bindTo(registry);
+
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(interceptor);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void shouldServeFreshResponseFromCache() {
+        // Given
+        server.expect(once(), requestTo(URI))
+                .andRespond(withSuccess("{\"scheme\":\"VISA\"}", MediaType.APPLICATION_JSON)
+                        .headers(cacheControl("max-age=60")));
+
+        // When
+        String first = restTemplate.getForObject(URI, String.class);
+        clock.advanceSeconds(30);
+        String second = restTemplate.getForObject(URI, String.class);
+
+        // Then
+        server.verify();
+        assertThat(first).isEqualTo("{\"scheme\":\"VISA\"}");
+        assertThat(second).isEqualTo(first);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRevalidateStaleResponseWithETag() {
+        // Given
+        HttpHeaders headers = cacheControl("max-age=10");
+        headers.setETag("\"v1\"");
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("{\"rate\":1.08}", MediaType.APPLICATION_JSON).headers(headers));
+        server.expect(requestTo(URI))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(cacheControl("max-age=10")));
+
+        // When
+        restTemplate.getForObject(URI, String.class);
+        clock.advanceSeconds(11);
+        String revalidated = restTemplate.getForObject(URI, String.class);
+        String cached = restTemplate.getForObject(URI, String.class);
+
+        // Then
+        server.verify();
+        assertThat(revalidated).isEqualTo("{\"rate\":1.08}");
+        assertThat(cached).isEqualTo(revalidated);
+        assertThat(requests("revalidated")).isEqualTo(1);
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotStoreNoStoreResponses() {
+        // Given
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("first", MediaType.TEXT_PLAIN).headers(cacheControl("no-store, max-age=60")));
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("second", MediaType.TEXT_PLAIN));
+
+        // When
+        restTemplate.getForObject(URI, String.class);
+        String second = restTemplate.getForObject(URI, String.class);
+
+        // Then
+        server.verify();
+        assertThat(second).isEqualTo("second");
+    }
+
+    @Test
+    void shouldPassThroughBodiesLargerThanMaxEntrySize() {
+        // Given
+        properties.getCache().setMaxEntrySize(DataSize.ofBytes(4));
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("0123456789", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("0123456789", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+
+        // When
+        String first = restTemplate.getForObject(URI, String.class);
+        restTemplate.getForObject(URI, String.class);
+
+        // Then
+        server.verify();
+        assertThat(first).isEqualTo("0123456789");
+    }
+
+    @Test
+    void shouldKeepCredentialsApart() {
+        // Given
+        server.expect(requestTo(URI))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer merchant-a"))
+                .andRespond(withSuccess("a", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+        server.expect(requestTo(URI))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer merchant-b"))
+                .andRespond(withSuccess("b", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+
+        // When
+        String a = get("Bearer merchant-a");
+        String b = get("Bearer merchant-b");
+
+        // Then
+        server.verify();
+        assertThat(a).isEqualTo("a");
+        assertThat(b).isEqualTo("b");
+    }
+
+    @Test
+    void shouldInvalidateOnSuccessfulWrite() {
+        // Given
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("old", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+        server.expect(requestTo(URI))
+                .andExpect(method(HttpMethod.PUT))
+                .andRespond(withSuccess());
+        server.expect(requestTo(URI))
+                .andRespond(withSuccess("new", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+
+        // When
+        restTemplate.getForObject(URI, String.class);
+        restTemplate.put(URI, "update");
+        String afterWrite = restTemplate.getForObject(URI, String.class);
+
+        // Then
+        server.verify();
+        assertThat(afterWrite).isEqualTo("new");
+    }
+
+    private String get(String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        return restTemplate.exchange(URI, HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+    }
+
+    @Test
+    void shouldCacheHostsPastTheClientTagLimitUnderOther() {
+        // Given
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        metricsProperties.getTagLimits().setClient(new TagLimit(1));
+        HttpCacheInterceptor interceptor = new HttpCacheInterceptor(new ClientNameResolver(properties),
+                new PaymentMetrics(registry, metricsProperties), properties.getCache(), clock);
+        interceptor.bindTo(registry);
+        RestTemplate limited = new RestTemplate();
+        limited.getInterceptors().add(interceptor);
+        MockRestServiceServer limitedServer = MockRestServiceServer.bindTo(limited).build();
+        String otherUri = "https://10.0.0.7/v1/bins/411111";
+        limitedServer.expect(once(), requestTo(URI)).andRespond(withSuccess("a", MediaType.TEXT_PLAIN));
+        limitedServer.expect(once(), requestTo(otherUri))
+                .andRespond(withSuccess("b", MediaType.TEXT_PLAIN).headers(cacheControl("max-age=60")));
+
+        // When
+        limited.getForObject(URI, String.class);
+        limited.getForObject(otherUri, String.class);
+        String cached = limited.getForObject(otherUri, String.class);
+
+        // Then
+        limitedServer.verify();
+        assertThat(cached).isEqualTo("b");
+        assertThat(registry.get("custom.stackdriver.http_client.cache.requests").tag("service_name", "checkout")
+                .tag("client", "OTHER").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    private double requests(String result) {
+        return registry.get("custom.stackdriver.http_client.cache.requests")
+                .tag("service_name", "checkout")
+                .tag("client", "api.example.com")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.retry.support.RetryTemplate;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class HttpClientMetricsInterceptorTest {
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    @Mock
+    private ClientHttpResponse response;
+
+    private SimpleMeterRegistry registry;
+    private HttpClientMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.setClientNames(Map.of("api.paysight.com", "paysight"));
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        interceptor = new HttpClientMetricsInterceptor(new ClientNameResolver(properties),
+                new PaymentMetrics(registry, metricsProperties));
+        when(request.getURI()).thenReturn(URI.create("https://api.paysight.com/v1/payments"));
+    }
+
+    @Test
+    void shouldRecordRequestLatencyAndStatusClassPerClient() throws IOException {
+        // Given
+        when(execution.execute(any(), any())).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK, HttpStatus.BAD_REQUEST);
+
+        // When
+        interceptor.intercept(request, new byte[0], execution);
+        interceptor.intercept(request, new byte[0], execution);
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.http_client.requests").tag("client", "paysight")
+                .counter().count()).isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.http_client_response_time").tag("client", "paysight")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("service_name", "checkout")
+                .tag("status_class", "2xx").tag("attempt", "1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "4xx")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").tag("error_type", "client_error")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.in_flight").tag("service_name", "checkout")
+                .tag("client", "paysight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldClassifyTimeouts() throws IOException {
+        // Given
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("Read timed out"));
+
+        // When & Then
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution))
+                .isInstanceOf(SocketTimeoutException.class);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").tag("error_type", "timeout")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "NONE")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldTagAttemptNumberFromRetryContext() throws IOException {
+        // Given
+        when(execution.execute(any(), any())).thenReturn(response);
+        when(response.getStatusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK);
+        RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(3).noBackoff().build();
+
+        // When
+        retryTemplate.execute(context -> {
+            ClientHttpResponse result = interceptor.intercept(request, new byte[0], execution);
+            if (result.getStatusCode().is5xxServerError()) {
+                throw new IOException("retryable");
+            }
+            return result;
+        });
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "5xx")
+                .tag("attempt", "1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "2xx")
+                .tag("attempt", "2").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,269 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.MaskingConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy.Level;
+import com.paymend.commons.exception.RetryableHttpException;
+import com.paymend.commons.logging.LoggingPolicyResolver;
+import com.paymend.commons.logging.TrafficLogger;
+import com.paymend.commons.masking.HeaderMasker;
+import com.paymend.commons.masking.JsonBodyRedactor;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+import com.paymend.commons.metrics.PaymentMetricsProperties.TagLimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class HttpLoggingInterceptorTest {
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    @Mock
+    private ClientHttpResponse response;
+
+    private RestTemplateConfigProperties properties;
+    private PaymentMetricsProperties metricsProperties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        metricsProperties = new PaymentMetricsProperties();
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        when(request.getURI()).thenReturn(URI.create("https://api.example.com/reports"));
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+    }
+
+    @Test
+    void shouldStreamBinaryBodyUntouched() throws IOException {
+        // Given
+        properties.getLogging().setMode(RestTemplateConfigProperties.Logging.Mode.STREAMING);
+        properties.getLogging().setMaxResponseBodyBytes(4);
+        byte[] payload = {0x00, (byte) 0xFF, '\r', '\n', 0x7F, (byte) 0x80, 'a', 'b'};
+        InputStream original = new ByteArrayInputStream(payload);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenReturn(original);
+        when(execution.execute(request, new byte[]{})).thenReturn(response);
+        HttpLoggingInterceptor interceptor = createInterceptor();
+
+        // When
+        ClientHttpResponse result = interceptor.intercept(request, new byte[]{}, execution);
+        byte[] read = StreamUtils.copyToByteArray(result.getBody());
+        result.close();
+
+        // Then
+        assertThat(read).isEqualTo(payload);
+        verify(response).close();
+    }
+
+    @Test
+    void shouldReturnBufferedResponseInBufferedMode() throws IOException {
+        // Given
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenReturn(new ByteArrayInputStream("{\"ok\":true}".getBytes()));
+        when(execution.execute(request, new byte[]{})).thenReturn(response);
+        HttpLoggingInterceptor interceptor = createInterceptor();
+
+        // When
+        ClientHttpResponse result = interceptor.intercept(request, new byte[]{}, execution);
+
+        // Then
+        assertThat(result).isSameAs(response);
+    }
+
+    @Test
+    void shouldCloseResponseBeforeThrowingRetryableException() throws IOException {
+        // Given
+        ClientHttpResponse failed = mock(ClientHttpResponse.class);
+        when(failed.getStatusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE);
+        when(failed.getHeaders()).thenReturn(new HttpHeaders());
+        when(failed.getBody()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(execution.execute(request, new byte[]{})).thenReturn(failed);
+        HttpLoggingInterceptor interceptor = createInterceptor();
+
+        // When & Then
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[]{}, execution))
+                .isInstanceOf(RetryableHttpException.class);
+        verify(failed).close();
+    }
+
+    @Test
+    void shouldLogRetryableResponseBeforeThrowingAtOnErrorLevel() throws IOException {
+        // Given
+        properties.getLogging().setMode(RestTemplateConfigProperties.Logging.Mode.STREAMING);
+        properties.getLogging().getPolicy().setLevel(Level.ON_ERROR);
+        byte[] requestBody = "amount=12500".getBytes(StandardCharsets.UTF_8);
+        ClientHttpResponse failed = mock(ClientHttpResponse.class);
+        when(failed.getStatusCode()).thenReturn(HttpStatus.SERVICE_UNAVAILABLE);
+        when(failed.getHeaders()).thenReturn(new HttpHeaders());
+        when(failed.getBody()).thenReturn(new ByteArrayInputStream("acquirer unavailable".getBytes()));
+        when(execution.execute(request, requestBody)).thenReturn(failed);
+        TrafficLogger trafficLogger = mock(TrafficLogger.class);
+        List<String> logged = new ArrayList<>();
+        doAnswer(invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                logged.add(String.valueOf(argument));
+            }
+            return null;
+        }).when(trafficLogger).info(any(), any(), any(Object[].class));
+        HttpLoggingInterceptor interceptor = createInterceptor(trafficLogger);
+
+        // When
+        assertThatThrownBy(() -> interceptor.intercept(request, requestBody, execution))
+                .isInstanceOf(RetryableHttpException.class);
+
+        // Then
+        assertThat(logged).contains("amount=12500", "503", "acquirer unavailable");
+        verify(failed).close();
+    }
+
+    @Test
+    void shouldNotReadResponseBodyAtHeadersLevel() throws IOException {
+        // Given
+        properties.getLogging().getPolicy().setLevel(Level.HEADERS);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(execution.execute(request, new byte[]{})).thenReturn(response);
+        HttpLoggingInterceptor interceptor = createInterceptor();
+
+        // When
+        ClientHttpResponse result = interceptor.intercept(request, new byte[]{}, execution);
+
+        // Then
+        assertThat(result).isSameAs(response);
+        verify(response, never()).getBody();
+    }
+
+    @Test
+    void shouldLogBodiesOnlyForFailedCallsAtOnErrorLevel() throws IOException {
+        // Given
+        properties.getLogging().getPolicy().setLevel(Level.ON_ERROR);
+        ClientHttpResponse notFound = mock(ClientHttpResponse.class);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(notFound.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND);
+        when(notFound.getHeaders()).thenReturn(new HttpHeaders());
+        when(notFound.getBody()).thenReturn(new ByteArrayInputStream("{\"error\":\"unknown bin\"}".getBytes()));
+        when(execution.execute(request, new byte[]{})).thenReturn(response, notFound);
+        HttpLoggingInterceptor interceptor = createInterceptor();
+
+        // When
+        interceptor.intercept(request, new byte[]{}, execution);
+        interceptor.intercept(request, new byte[]{}, execution);
+
+        // Then
+        verify(response, never()).getBody();
+        verify(notFound).getBody();
+    }
+
+    @Test
+    void shouldTruncateLoggedBodiesAndRecordTheirSizes() throws IOException {
+        // Given
+        properties.getLogging().setMaxRequestBodyBytes(4);
+        properties.getLogging().setMaxResponseBodyBytes(8);
+        byte[] requestBody = "amount=12500".getBytes(StandardCharsets.UTF_8);
+        byte[] responseBody = "status=APPROVED&id=7".getBytes(StandardCharsets.UTF_8);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenAnswer(invocation -> new ByteArrayInputStream(responseBody));
+        when(execution.execute(request, requestBody)).thenReturn(response);
+        TrafficLogger trafficLogger = mock(TrafficLogger.class);
+        List<String> logged = new ArrayList<>();
+        doAnswer(invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                logged.add(String.valueOf(argument));
+            }
+            return null;
+        }).when(trafficLogger).info(any(), any(), any(Object[].class));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpLoggingInterceptor interceptor = createInterceptor(trafficLogger);
+        interceptor.bindTo(registry);
+
+        // When
+        ClientHttpResponse result = interceptor.intercept(request, requestBody, execution);
+
+        // Then
+        assertThat(StreamUtils.copyToByteArray(result.getBody())).isEqualTo(responseBody);
+        assertThat(logged).contains("amou [truncated: 4 of 12 bytes]", "status=A [truncated: 8 of 20 bytes]");
+        assertThat(registry.get("custom.stackdriver.http_client.body.size").tag("direction", "request")
+                .summary().totalAmount()).isEqualTo(12);
+        assertThat(registry.get("custom.stackdriver.http_client.body.size").tag("direction", "response")
+                .summary().totalAmount()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldTagBodySizesWithServiceNameAndLimitedClient() throws IOException {
+        // Given
+        metricsProperties.setServiceName("checkout");
+        metricsProperties.getTagLimits().setClient(new TagLimit(1));
+        byte[] requestBody = "amount=12500".getBytes(StandardCharsets.UTF_8);
+        when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+        when(response.getHeaders()).thenReturn(new HttpHeaders());
+        when(response.getBody()).thenAnswer(invocation -> new ByteArrayInputStream(new byte[0]));
+        when(execution.execute(request, requestBody)).thenReturn(response);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HttpLoggingInterceptor interceptor = createInterceptor(mock(TrafficLogger.class));
+        interceptor.bindTo(registry);
+
+        // When
+        interceptor.intercept(request, requestBody, execution);
+        when(request.getURI()).thenReturn(URI.create("https://10.0.0.7/reports"));
+        interceptor.intercept(request, requestBody, execution);
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.http_client.body.size").tag("service_name", "checkout")
+                .tag("client", "api.example.com").tag("direction", "request").summary().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.body.size").tag("service_name", "checkout")
+                .tag("client", "OTHER").tag("direction", "request").summary().count()).isEqualTo(1);
+    }
+
+    private HttpLoggingInterceptor createInterceptor() {
+        return createInterceptor(new TrafficLogger(properties, new PaymentMetricsProperties()));
+    }
+
+    private HttpLoggingInterceptor createInterceptor(TrafficLogger trafficLogger) {
+        MaskingConfigProperties maskingProperties = new MaskingConfigProperties();
+        ClientNameResolver clientNameResolver = new ClientNameResolver(properties);
+        return new HttpLoggingInterceptor(properties, trafficLogger,
+                new LoggingPolicyResolver(properties, clientNameResolver), clientNameResolver,
+                new HeaderMasker(maskingProperties), new JsonBodyRedactor(maskingProperties),
+                new PaymentMetrics(new SimpleMeterRegistry(), metricsProperties));
+    }
+}
@@ -0,0 +1,132 @@
+package com.paymend.commons.interceptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.retry.backoff.NoBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.resilience.RetryBudgetPolicy;
+
+@ExtendWith(MockitoExtension.class)
+class RetryInterceptorTest {
+
+    @Mock
+    private HttpRequest request;
+
+    @Mock
+    private ClientHttpRequestExecution execution;
+
+    @Mock
+    private ClientHttpResponse response;
+
+    private RestTemplateConfigProperties properties;
+    private RetryTemplate retryTemplate;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new RetryBudgetPolicy(
+                new SimpleRetryPolicy(3, Map.of(IOException.class, true))));
+        retryTemplate.setBackOffPolicy(new NoBackOffPolicy());
+    }
+
+    @Test
+    void shouldRetryIdempotentRequestUntilSuccess() throws IOException {
+        // Given
+        givenGetRequest();
+        when(execution.execute(any(), any()))
+                .thenThrow(new IOException("reset"))
+                .thenReturn(response);
+
+        // When
+        ClientHttpResponse result = interceptor().intercept(request, new byte[]{}, execution);
+
+        // Then
+        assertThat(result).isEqualTo(response);
+        verify(execution, times(2)).execute(any(), any());
+    }
+
+    @Test
+    void shouldNotRetryNonIdempotentRequest() throws IOException {
+        // Given
+        when(request.getMethod()).thenReturn(HttpMethod.POST);
+        when(execution.execute(any(), any())).thenThrow(new IOException("reset"));
+
+        // When & Then
+        assertThatThrownBy(() -> interceptor().intercept(request, new byte[]{}, execution))
+                .isInstanceOf(IOException.class);
+        verify(execution, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsExhausted() throws IOException {
+        // Given
+        properties.getRetry().getBudget().setPercent(0);
+        properties.getRetry().getBudget().setMaxTokens(1);
+        givenGetRequest();
+        when(execution.execute(any(), any())).thenThrow(new IOException("reset"));
+        RetryInterceptor interceptor = interceptor();
+
+        // When
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[]{}, execution))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[]{}, execution))
+                .isInstanceOf(IOException.class);
+
+        // Then: one retry for the first call, none for the second
+        verify(execution, times(3)).execute(any(), any());
+    }
+
+    @Test
+    void shouldRunAttemptInterceptorsOnEveryAttempt() throws IOException {
+        // Given
+        int[] calls = {0};
+        givenGetRequest();
+        when(execution.execute(any(), any()))
+                .thenThrow(new IOException("reset"))
+                .thenReturn(response);
+        RetryInterceptor interceptor = new RetryInterceptor(retryTemplate, new ClientNameResolver(properties),
+                properties.getRetry(), List.of((req, body, exec) -> {
+                    calls[0]++;
+                    return exec.execute(req, body);
+                }));
+
+        // When
+        interceptor.intercept(request, new byte[]{}, execution);
+
+        // Then
+        assertThat(calls[0]).isEqualTo(2);
+    }
+
+    private void givenGetRequest() {
+        when(request.getMethod()).thenReturn(HttpMethod.GET);
+        when(request.getURI()).thenReturn(URI.create("https://api.paysight.com/v1/status"));
+    }
+
+    private RetryInterceptor interceptor() {
+        return new RetryInterceptor(retryTemplate, new ClientNameResolver(properties), properties.getRetry(), List.of());
+    }
+}
@@ -0,0 +1,93 @@
+package com.paymend.commons.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.PathPolicy;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy;
+import com.paymend.commons.config.RestTemplateConfigProperties.Logging.Policy.Level;
+import com.paymend.commons.context.CorrelationContext;
+
+class LoggingPolicyResolverTest {
+
+    private RestTemplateConfigProperties properties;
+    private LoggingPolicyResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        properties.getClientNames().put("api.paysight.com", "paysight");
+        resolver = new LoggingPolicyResolver(properties, new ClientNameResolver(properties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        CorrelationContext.clear();
+    }
+
+    @Test
+    void shouldLogBodiesByDefault() {
+        assertThat(resolver.decide(URI.create("https://api.example.com/v1/bins")).level()).isEqualTo(Level.BODIES);
+    }
+
+    @Test
+    void shouldPreferPathPolicyOverClientPolicy() {
+        // Given
+        properties.getLogging().getClients().put("paysight", policy(Level.HEADERS));
+        PathPolicy tokens = new PathPolicy();
+        tokens.setPattern("/v1/tokens/**");
+        tokens.setClient("paysight");
+        tokens.setLevel(Level.OFF);
+        properties.getLogging().getPaths().add(tokens);
+
+        // When & Then
+        assertThat(resolver.decide(URI.create("https://api.paysight.com/v1/tokens/abc")).level()).isEqualTo(Level.OFF);
+        assertThat(resolver.decide(URI.create("https://api.paysight.com/v1/payments")).level())
+                .isEqualTo(Level.HEADERS);
+        assertThat(resolver.decide(URI.create("https://api.example.com/v1/tokens/abc")).level())
+                .isEqualTo(Level.BODIES);
+    }
+
+    @Test
+    void shouldSampleConsistentlyPerRequestId() {
+        // Given
+        Policy sampled = policy(Level.SAMPLED);
+        sampled.setSamplePercent(50);
+        properties.getLogging().setPolicy(sampled);
+        URI uri = URI.create("https://api.example.com/v1/bins");
+        int bodies = 0;
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            CorrelationContext.setRequestId("REQ-" + i);
+            Level first = resolver.decide(uri).level();
+            assertThat(resolver.decide(uri).level()).isEqualTo(first);
+            if (first == Level.BODIES) {
+                bodies++;
+            }
+        }
+
+        // Then
+        assertThat(bodies).isBetween(400, 600);
+    }
+
+    @Test
+    void shouldFallBackToDefaultPolicyForInvalidUri() {
+        properties.getLogging().getPolicy().setLevel(Level.ON_ERROR);
+
+        assertThat(resolver.decide("https://api.example.com/v1/bins/{bin}").level()).isEqualTo(Level.ON_ERROR);
+    }
+
+    private static Policy policy(Level level) {
+        Policy policy = new Policy();
+        policy.setLevel(level);
+        return policy;
+    }
+}
@@ -0,0 +1,70 @@
+package com.paymend.commons.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new MpscRingBuffer<>(1000).capacity()).isEqualTo(1024);
+        assertThat(new MpscRingBuffer<>(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void shouldRejectOffersWhenFullAndAcceptAgainAfterPoll() {
+        // Given
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        // When
+        boolean overflow = buffer.offer(4);
+        Integer first = buffer.poll();
+
+        // Then
+        assertThat(overflow).isFalse();
+        assertThat(first).isZero();
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.poll()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeliverEveryElementFromConcurrentProducers() throws InterruptedException {
+        // Given
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        Set<Integer> received = new HashSet<>();
+        while (received.size() < producers * perProducer) {
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertThat(received.add(value)).isTrue();
+            }
+        }
+        done.await();
+
+        // Then
+        assertThat(buffer.poll()).isNull();
+    }
+}
@@ -0,0 +1,133 @@
+package com.paymend.commons.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TrafficLoggerTest {
+
+    private TrafficLogger trafficLogger;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (trafficLogger != null) {
+            trafficLogger.destroy();
+        }
+        MDC.clear();
+    }
+
+    @Test
+    void shouldLogOnCallingThreadByDefault() {
+        // Given
+        trafficLogger = new TrafficLogger(new RestTemplateConfigProperties(), new PaymentMetricsProperties());
+        Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+
+        // When
+        trafficLogger.info(logger, "GET {}", "https://api.example.com");
+
+        // Then
+        assertThat(trafficLogger.isAsync()).isFalse();
+        verify(logger).info("GET {}", new Object[] {"https://api.example.com"});
+    }
+
+    @Test
+    void shouldWriteAsynchronouslyWithCallerMdc() {
+        // Given
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getLogging().setAsync(true);
+        trafficLogger = new TrafficLogger(properties, new PaymentMetricsProperties());
+        Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        String[] writerMdc = new String[1];
+        doAnswer(invocation -> {
+            writerMdc[0] = MDC.get("traceId");
+            return null;
+        }).when(logger).info(any(String.class), any(Object[].class));
+        MDC.put("traceId", "abc123");
+
+        // When
+        trafficLogger.info(logger, "Response Status: {}", 200);
+
+        // Then
+        verify(logger, timeout(2_000)).info("Response Status: {}", new Object[] {200});
+        assertThat(writerMdc[0]).isEqualTo("abc123");
+    }
+
+    @Test
+    void shouldParkIdleWriterUntilMessageArrives() throws InterruptedException {
+        // Given
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getLogging().setAsync(true);
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        trafficLogger = new TrafficLogger(properties, new PaymentMetricsProperties());
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("paymend-traffic-log") && !before.contains(thread))
+                .findFirst()
+                .orElseThrow();
+        Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+
+        // When
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (writer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Then
+        assertThat(writer.getState()).isEqualTo(Thread.State.WAITING);
+        trafficLogger.info(logger, "GET {}", "https://api.example.com");
+        verify(logger, timeout(2_000)).info("GET {}", new Object[] {"https://api.example.com"});
+    }
+
+    @Test
+    void shouldSkipWhenInfoIsDisabled() {
+        // Given
+        trafficLogger = new TrafficLogger(new RestTemplateConfigProperties(), new PaymentMetricsProperties());
+        Logger logger = mock(Logger.class);
+
+        // When
+        trafficLogger.info(logger, "GET {}", "https://api.example.com");
+
+        // Then
+        verify(logger, never()).info(any(String.class), any(Object[].class));
+    }
+
+    @Test
+    void shouldTagLogMetersWithServiceName() {
+        // Given
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getLogging().setAsync(true);
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        trafficLogger = new TrafficLogger(properties, metricsProperties);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // When
+        trafficLogger.bindTo(registry);
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.http_client.log.dropped").tag("service_name", "checkout")
+                .functionCounter().count()).isZero();
+        assertThat(registry.get("custom.stackdriver.http_client.log.buffer_capacity").tag("service_name", "checkout")
+                .gauge().value()).isPositive();
+    }
+}
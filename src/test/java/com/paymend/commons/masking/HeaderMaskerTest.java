@@ -0,0 +1,82 @@
+package com.paymend.commons.masking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.paymend.commons.config.MaskingConfigProperties;
+
+class HeaderMaskerTest {
+
+    private MaskingConfigProperties properties;
+    private HeaderMasker headerMasker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MaskingConfigProperties();
+        headerMasker = new HeaderMasker(properties);
+    }
+
+    @Test
+    void shouldMaskSensitiveHeadersIgnoringCaseAndWhitespace() {
+        assertThat(headerMasker.mask("Authorization", "Bearer abc")).isEqualTo(HeaderMasker.MASK);
+        assertThat(headerMasker.mask(" X-API-KEY ", "secret")).isEqualTo(HeaderMasker.MASK);
+        assertThat(headerMasker.mask("Content-Type", "application/json")).isEqualTo("application/json");
+        assertThat(headerMasker.mask(null, "value")).isEqualTo("value");
+    }
+
+    @Test
+    void shouldNotMatchPrefixesOrSuffixes() {
+        assertThat(headerMasker.isSensitive("x-api")).isFalse();
+        assertThat(headerMasker.isSensitive("x-api-key-id")).isFalse();
+        assertThat(headerMasker.isSensitive("")).isFalse();
+    }
+
+    @Test
+    void shouldPickUpReboundConfiguration() {
+        // When
+        properties.setSensitiveHeaders(List.of("X-Merchant-Secret"));
+
+        // Then
+        assertThat(headerMasker.isSensitive("x-merchant-secret")).isTrue();
+        assertThat(headerMasker.isSensitive("authorization")).isFalse();
+        assertThat(properties.getSensitiveHeadersNormalized()).containsExactly("x-merchant-secret");
+    }
+
+    @Test
+    void shouldMaskCopyWithoutTouchingOriginal() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer abc");
+        headers.set("request-id", "REQ-1");
+
+        // When
+        HttpHeaders masked = headerMasker.maskedCopy(headers);
+
+        // Then
+        assertThat(masked.getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo(HeaderMasker.MASK);
+        assertThat(masked.getFirst("request-id")).isEqualTo("REQ-1");
+        assertThat(headers.getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer abc");
+    }
+
+    @Test
+    void shouldHandleManyHeaderNames() {
+        // Given
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add("X-Secret-" + i);
+        }
+        properties.setSensitiveHeaders(names);
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(headerMasker.isSensitive("x-secret-" + i)).isTrue();
+        }
+        assertThat(headerMasker.isSensitive("x-secret-100")).isFalse();
+    }
+}
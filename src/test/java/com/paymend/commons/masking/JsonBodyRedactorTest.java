@@ -0,0 +1,123 @@
+package com.paymend.commons.masking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.paymend.commons.config.MaskingConfigProperties;
+
+class JsonBodyRedactorTest {
+
+    private static final String MASKED = "\"" + HeaderMasker.MASK + "\"";
+
+    private MaskingConfigProperties properties;
+    private JsonBodyRedactor redactor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MaskingConfigProperties();
+        redactor = new JsonBodyRedactor(properties);
+    }
+
+    @Test
+    void shouldRedactFieldNamesAtAnyDepthIgnoringCase() {
+        // Given
+        String body = "{\"amount\":12.50,\"card\":{\"PAN\":\"4111111111111111\",\"cvv\":123,\"expiry\":\"12/30\"},"
+                + "\"items\":[{\"password\":\"s3cret\",\"qty\":2}],\"ok\":true,\"note\":null}";
+
+        // When
+        String redacted = redact(body);
+
+        // Then
+        assertThat(redacted).isEqualTo("{\"amount\":12.50,\"card\":{\"PAN\":" + MASKED + ",\"cvv\":" + MASKED
+                + ",\"expiry\":\"12/30\"},\"items\":[{\"password\":" + MASKED + ",\"qty\":2}],\"ok\":true,\"note\":null}");
+    }
+
+    @Test
+    void shouldRedactJsonPathsOnlyWhereTheyMatch() {
+        // Given
+        properties.setSensitiveFields(List.of("$.payer.account.number", "$.transfers[*].iban"));
+        String body = "{\"payer\":{\"account\":{\"number\":\"DE89\",\"bank\":\"X\"}},\"number\":\"visible\","
+                + "\"transfers\":[{\"iban\":\"GB29\"},{\"iban\":{\"value\":\"GB30\"}}],\"other\":{\"iban\":\"visible\"}}";
+
+        // When
+        String redacted = redact(body);
+
+        // Then
+        assertThat(redacted).isEqualTo("{\"payer\":{\"account\":{\"number\":" + MASKED + ",\"bank\":\"X\"}},"
+                + "\"number\":\"visible\",\"transfers\":[{\"iban\":" + MASKED + "},{\"iban\":" + MASKED + "}],"
+                + "\"other\":{\"iban\":\"visible\"}}");
+    }
+
+    @Test
+    void shouldReplaceSensitiveObjectsAndArraysWhole() {
+        // Given
+        properties.setSensitiveFields(List.of("card"));
+
+        // When
+        String redacted = redact("[{\"card\":{\"pan\":\"4111\",\"nested\":[1,2]}},{\"card\":[\"a\"]}]");
+
+        // Then
+        assertThat(redacted).isEqualTo("[{\"card\":" + MASKED + "},{\"card\":" + MASKED + "}]");
+    }
+
+    @Test
+    void shouldDropEverythingAfterTruncationOrMalformedInput() {
+        // When
+        String truncated = redact("{\"id\":\"1\",\"cvv\":\"12");
+        String malformed = redact("{\"id\":1,\"cvv\" 123, \"pan\":\"4111111111111111\"}");
+
+        // Then
+        assertThat(truncated).isEqualTo("{\"id\":\"1\",\"cvv\":" + MASKED + JsonBodyRedactor.TRUNCATED);
+        assertThat(malformed).isEqualTo("{\"id\":1" + JsonBodyRedactor.TRUNCATED);
+    }
+
+    @Test
+    void shouldScanNonJsonBodiesAndFreeTextJsonValues() {
+        assertThat(redact("amount=10&pan=4111111111111111&cvv=123"))
+                .isEqualTo("amount=10&pan=****************&cvv=***");
+        assertThat(redact("{\"note\":\"card 4111111111111111 declined\"}"))
+                .isEqualTo("{\"note\":\"card ************1111 declined\"}");
+    }
+
+    @Test
+    void shouldMaskCardNumberCutAtTruncationBoundary() {
+        // Given
+        byte[] form = "amount=10&data=4111111111111111".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        String cutForm = redactor.redact(form, 0, form.length - 4, true);
+        String cutJson = redact("{\"amount\":10,\"value\":411111111111");
+
+        // Then
+        assertThat(cutForm).isEqualTo("amount=10&data=************");
+        assertThat(cutJson).isEqualTo("{\"amount\":10,\"value\":************" + JsonBodyRedactor.TRUNCATED);
+    }
+
+    @Test
+    void shouldPassThroughWhenDisabled() {
+        // Given
+        properties.setRedactBodies(false);
+        properties.setScanBodies(false);
+
+        // Then
+        assertThat(redact("{\"pan\":\"4111\"}")).isEqualTo("{\"pan\":\"4111\"}");
+        assertThat(redact("pan=4111111111111111")).isEqualTo("pan=4111111111111111");
+    }
+
+    @Test
+    void shouldRejectPathWithoutFields() {
+        assertThatThrownBy(() -> properties.setSensitiveFields(List.of("$.")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String redact(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return redactor.redact(bytes, 0, bytes.length);
+    }
+}
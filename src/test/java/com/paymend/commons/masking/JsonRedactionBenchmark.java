@@ -0,0 +1,63 @@
+package com.paymend.commons.masking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.paymend.commons.config.MaskingConfigProperties;
+
+/**
+ * Redacting a payment batch of {@code items} entries against plainly decoding it, which is what
+ * logging a body cost before redaction. See "Benchmarks" in the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonRedactionBenchmark {
+
+    @Param({"1", "100"})
+    private int items;
+
+    private byte[] body;
+    private JsonBodyRedactor redactor;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"batchId\":\"B-20240101-0001\",\"payments\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i)
+                    .append(",\"amount\":1250.75,\"currency\":\"EUR\",\"description\":\"Invoice ").append(i)
+                    .append(" \\u00e9t\\u00e9\",\"card\":{\"cardNumber\":\"4111111111111111\",\"cvv\":\"123\",")
+                    .append("\"expiry\":\"12/30\",\"holder\":\"Jane Doe\"},\"tags\":[\"a\",\"b\"],\"captured\":true}");
+        }
+        body = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        redactor = new JsonBodyRedactor(new MaskingConfigProperties());
+    }
+
+    @Benchmark
+    public String decodeOnly() {
+        return new String(body, 0, body.length, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String redact() {
+        return redactor.redact(body, 0, body.length);
+    }
+}
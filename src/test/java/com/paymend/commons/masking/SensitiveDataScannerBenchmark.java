@@ -0,0 +1,65 @@
+package com.paymend.commons.masking;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.paymend.commons.config.MaskingConfigProperties;
+
+/**
+ * Scanning 1 MiB of form-encoded payments with the default keywords. Each invocation first restores
+ * the unmasked payload, which {@link #copyOnly} measures on its own; throughput in GB/s is
+ * {@code 1.048576 / (scan - copyOnly)} with scores in milliseconds.
+ * See "Benchmarks" in the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensitiveDataScannerBenchmark {
+
+    private static final int SIZE = 1 << 20;
+
+    private byte[] payload;
+    private byte[] scratch;
+    private SensitiveDataScanner scanner;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder(SIZE + 256);
+        for (int i = 0; sb.length() < SIZE; i++) {
+            sb.append("merchant_id=M").append(100000 + i)
+                    .append("&amount=1250.75&currency=EUR&order_ref=ORD-2024-").append(i)
+                    .append("&card_number=4111111111111111&cvv=123&expiry=1230")
+                    .append("&description=Monthly+subscription+renewal&phone=4915112345678\n");
+        }
+        payload = sb.substring(0, SIZE).getBytes(StandardCharsets.US_ASCII);
+        scratch = new byte[SIZE];
+        scanner = new MaskingConfigProperties().getSensitiveDataScanner();
+    }
+
+    @Benchmark
+    public byte[] copyOnly() {
+        System.arraycopy(payload, 0, scratch, 0, SIZE);
+        return scratch;
+    }
+
+    @Benchmark
+    public byte[] scan() {
+        System.arraycopy(payload, 0, scratch, 0, SIZE);
+        scanner.mask(scratch, 0, SIZE);
+        return scratch;
+    }
+}
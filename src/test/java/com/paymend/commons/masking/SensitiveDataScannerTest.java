@@ -0,0 +1,129 @@
+package com.paymend.commons.masking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SensitiveDataScannerTest {
+
+    private final SensitiveDataScanner scanner = SensitiveDataScanner.of(List.of("password=", "<CVV>", "api_key="));
+
+    @Test
+    void shouldMaskLuhnValidDigitRunsOfThirteenToNineteenDigits() {
+        assertThat(mask("card=4111111111111111&amount=100"))
+                .isEqualTo("card=************1111&amount=100");
+        assertThat(mask("<pan>378282246310005</pan>")).isEqualTo("<pan>***********0005</pan>");
+        assertThat(mask("6011000990139424")).isEqualTo("************9424");
+    }
+
+    @Test
+    void shouldLeaveOtherDigitRunsAlone() {
+        // Fails Luhn
+        assertThat(mask("card=4111111111111112")).isEqualTo("card=4111111111111112");
+        // Too short and too long
+        assertThat(mask("id=4222222222")).isEqualTo("id=4222222222");
+        assertThat(mask("ref=41111111111111111111")).isEqualTo("ref=41111111111111111111");
+    }
+
+    @Test
+    void shouldLeaveLuhnValidTimestampsAndIdsWithoutCardPrefixAlone() {
+        // Both pass Luhn
+        assertThat(mask("{\"ts\":1760000000008}")).isEqualTo("{\"ts\":1760000000008}");
+        assertThat(mask("id=7000000000000005")).isEqualTo("id=7000000000000005");
+    }
+
+    @Test
+    void shouldMaskPansGroupedWithSpacesOrDashes() {
+        assertThat(mask("card 4111 1111 1111 1111 ok")).isEqualTo("card **** **** **** 1111 ok");
+        assertThat(mask("card=4111-1111-1111-1111&x=1")).isEqualTo("card=****-****-****-1111&x=1");
+        assertThat(mask("3782 822463 10005")).isEqualTo("**** ****** *0005");
+    }
+
+    @Test
+    void shouldLeaveOtherGroupedDigitsAlone() {
+        // Fails Luhn, doubled separator, and a date followed by a number
+        assertThat(mask("4111 1111 1111 1112")).isEqualTo("4111 1111 1111 1112");
+        assertThat(mask("4111  1111 1111 1111")).isEqualTo("4111  1111 1111 1111");
+        assertThat(mask("2024-10-17 4111")).isEqualTo("2024-10-17 4111");
+    }
+
+    @Test
+    void shouldLeaveValuesOfNonPanFieldsAlone() {
+        // Given
+        SensitiveDataScanner withFields = SensitiveDataScanner.of(List.of("password="), List.of("transactionId"));
+
+        // Then
+        assertThat(mask(withFields, "{\"TransactionId\": \"4111111111111111\",\"pan\":\"4111111111111111\"}"))
+                .isEqualTo("{\"TransactionId\": \"4111111111111111\",\"pan\":\"************1111\"}");
+    }
+
+    @Test
+    void shouldMaskCardPrefixCutOffAtEndOfTruncatedRange() {
+        assertThat(mask("card=411111111111", true)).isEqualTo("card=************");
+        assertThat(mask("card 4111 1111 11", true)).isEqualTo("card **** **** **");
+        // Not cut off, too short, and a timestamp
+        assertThat(mask("card=411111111111", false)).isEqualTo("card=411111111111");
+        assertThat(mask("amount=411111", true)).isEqualTo("amount=411111");
+        assertThat(mask("{\"ts\":17600000000", true)).isEqualTo("{\"ts\":17600000000");
+    }
+
+    @Test
+    void shouldMaskKeywordValuesIgnoringCaseUpToDelimiter() {
+        assertThat(mask("user=bob&PASSWORD=hunter2&remember=true"))
+                .isEqualTo("user=bob&PASSWORD=*******&remember=true");
+        assertThat(mask("<Payment><cvv>123</cvv><Api_Key=abc></Payment>"))
+                .isEqualTo("<Payment><cvv>***</cvv><Api_Key=***></Payment>");
+        assertThat(mask("password=")).isEqualTo("password=");
+    }
+
+    @Test
+    void shouldMatchOverlappingKeywords() {
+        // Given
+        SensitiveDataScanner overlapping = SensitiveDataScanner.of(List.of("token=", "access_token=", "ken="));
+
+        // Then
+        assertThat(mask(overlapping, "access_token=abc&x=1")).isEqualTo("access_token=***&x=1");
+        assertThat(mask(overlapping, "aken=abc")).isEqualTo("aken=***");
+    }
+
+    @Test
+    void shouldStepThroughDigitsWhenKeywordsContainThem() {
+        // Given
+        SensitiveDataScanner withDigits = SensitiveDataScanner.of(List.of("cvv2=", "42="));
+
+        // Then
+        assertThat(mask(withDigits, "cvv2=123&n=4111111111111111&42=x"))
+                .isEqualTo("cvv2=***&n=************1111&42=*");
+    }
+
+    @Test
+    void shouldOnlyScanTheGivenRange() {
+        // Given
+        byte[] bytes = "4111111111111111|4111111111111111".getBytes(StandardCharsets.US_ASCII);
+
+        // When
+        scanner.mask(bytes, 17, 16);
+
+        // Then
+        assertThat(new String(bytes, StandardCharsets.US_ASCII)).isEqualTo("4111111111111111|************1111");
+    }
+
+    private String mask(String payload) {
+        return mask(scanner, payload);
+    }
+
+    private String mask(String payload, boolean truncated) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        scanner.mask(bytes, 0, bytes.length, truncated);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String mask(SensitiveDataScanner scanner, String payload) {
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        scanner.mask(bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,77 @@
+package com.paymend.commons.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The meters touched by one payment (incoming, outcome by status, client request and error): building and
+ * registering them per call, as {@link PaymentMetrics} used to, against its cached meters.
+ * See "Benchmarks" in the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseParallelGC")
+public class PaymentMetricsBenchmark {
+
+    private static final String SERVICE_NAME = "payments";
+
+    private MeterRegistry registry;
+    private PaymentMetrics paymentMetrics;
+
+    @Setup
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        PaymentMetricsProperties properties = new PaymentMetricsProperties();
+        properties.setServiceName(SERVICE_NAME);
+        paymentMetrics = new PaymentMetrics(registry, properties);
+    }
+
+    @Benchmark
+    public void registerPerCall() {
+        Counter.builder("custom.stackdriver.requests.incoming")
+                .tag("service_name", SERVICE_NAME)
+                .register(registry)
+                .increment();
+        Counter.builder("custom.stackdriver.requests.processed")
+                .tag("service_name", SERVICE_NAME)
+                .tag("statusCode", "200")
+                .register(registry)
+                .increment();
+        Counter.builder("custom.stackdriver.http_client.requests")
+                .tag("service_name", SERVICE_NAME)
+                .tag("client", "paysight")
+                .register(registry)
+                .increment();
+        Counter.builder("custom.stackdriver.http_client.errors")
+                .tag("service_name", SERVICE_NAME)
+                .tag("client", "paysight")
+                .tag("error_type", "timeout")
+                .register(registry)
+                .increment();
+    }
+
+    @Benchmark
+    public void cached() {
+        paymentMetrics.incrementPaymentCounter();
+        paymentMetrics.incrementTransactionCounterWithStatus("200");
+        paymentMetrics.incrementHttpClientRequestCounter("paysight");
+        paymentMetrics.incrementHttpClientErrorCounter("paysight", "timeout");
+    }
+}
@@ -0,0 +1,136 @@
+package com.paymend.commons.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PaymentMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PaymentMetrics paymentMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        PaymentMetricsProperties properties = new PaymentMetricsProperties();
+        properties.setServiceName("payments");
+        paymentMetrics = new PaymentMetrics(registry, properties);
+    }
+
+    @Test
+    void shouldRegisterFixedMetersAtConstruction() {
+        // When & Then
+        assertThat(registry.find("custom.stackdriver.requests.incoming").tag("service_name", "payments").counter())
+                .isNotNull();
+        assertThat(registry.find("custom.stackdriver.total_response_time").timer()).isNotNull();
+    }
+
+    @Test
+    void shouldReuseMetersPerTagCombination() {
+        // When
+        paymentMetrics.incrementPaymentCounter();
+        paymentMetrics.incrementTransactionCounterWithStatus("200");
+        paymentMetrics.incrementTransactionCounterWithStatus("200");
+        paymentMetrics.incrementTransactionCounterWithStatus("402");
+        paymentMetrics.incrementHttpClientErrorCounter("paysight", "timeout");
+        paymentMetrics.incrementHttpClientErrorCounter("paysight", "timeout");
+        paymentMetrics.incrementHttpClientErrorCounter("evervault", "timeout");
+        paymentMetrics.recordHttpClientResponseNanos("paysight", 120_000_000);
+        paymentMetrics.recordHttpClientResponseNanos("paysight", 80_000_000);
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.requests.incoming").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.requests.processed").tag("statusCode", "200").counter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.requests.processed").counters()).hasSize(2);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").tag("client", "paysight")
+                .tag("error_type", "timeout").counter().count()).isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").counters()).hasSize(2);
+        assertThat(registry.get("custom.stackdriver.http_client_response_time").tag("client", "paysight")
+                .timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200);
+    }
+
+    @Test
+    void shouldPublishSloBucketsInSloMode() {
+        // Given
+        PaymentMetricsProperties properties = new PaymentMetricsProperties();
+        properties.setLatencyHistogram(PaymentMetricsProperties.LatencyHistogram.SLO);
+        properties.setSloBoundaries(List.of(Duration.ofMillis(100), Duration.ofSeconds(1)));
+        SimpleMeterRegistry sloRegistry = new SimpleMeterRegistry();
+        PaymentMetrics sloMetrics = new PaymentMetrics(sloRegistry, properties);
+
+        // When
+        sloMetrics.recordTotalResponseNanos(Duration.ofMillis(50).toNanos());
+        sloMetrics.recordTotalResponseNanos(Duration.ofMillis(500).toNanos());
+
+        // Then
+        HistogramSnapshot snapshot = sloRegistry.get("custom.stackdriver.total_response_time").timer().takeSnapshot();
+        assertThat(snapshot.percentileValues()).isEmpty();
+        assertThat(snapshot.histogramCounts()).extracting(CountAtBucket::count).containsExactly(1.0, 2.0);
+    }
+
+    @Test
+    void shouldInterpretDeprecatedDurationsAsMillis() {
+        // When
+        paymentMetrics.recordTotalResponseTime(250);
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.total_response_time").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isEqualTo(250);
+    }
+
+    @Test
+    void shouldRecordValuesPastTheLimitAsOther() {
+        // Given
+        PaymentMetricsProperties properties = new PaymentMetricsProperties();
+        properties.getTagLimits().getStatusCode().setMaxValues(2);
+        SimpleMeterRegistry limitedRegistry = new SimpleMeterRegistry();
+        PaymentMetrics limitedMetrics = new PaymentMetrics(limitedRegistry, properties);
+
+        // When
+        limitedMetrics.incrementTransactionCounterWithStatus("200");
+        limitedMetrics.incrementTransactionCounterWithStatus("402");
+        limitedMetrics.incrementTransactionCounterWithStatus("Card declined: 4111 1111");
+        limitedMetrics.incrementTransactionCounterWithStatus("Card declined: 5500 0000");
+        limitedMetrics.incrementTransactionCounterWithStatus("200");
+
+        // Then
+        assertThat(limitedRegistry.get("custom.stackdriver.requests.processed").counters()).hasSize(3);
+        assertThat(limitedRegistry.get("custom.stackdriver.requests.processed").tag("statusCode", "OTHER")
+                .counter().count()).isEqualTo(2);
+        assertThat(limitedRegistry.get("custom.stackdriver.requests.processed").tag("statusCode", "200")
+                .counter().count()).isEqualTo(2);
+        assertThat(limitedRegistry.get("custom.stackdriver.metrics.tag_limit_exceeded").tag("tag", "statusCode")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepOnlyAllowedValues() {
+        // Given
+        PaymentMetricsProperties properties = new PaymentMetricsProperties();
+        properties.getTagLimits().getErrorType().setAllowedValues(List.of("timeout", "server_error"));
+        SimpleMeterRegistry limitedRegistry = new SimpleMeterRegistry();
+        PaymentMetrics limitedMetrics = new PaymentMetrics(limitedRegistry, properties);
+
+        // When
+        limitedMetrics.incrementHttpClientErrorCounter("paysight", "timeout");
+        limitedMetrics.incrementHttpClientErrorCounter("paysight", "Connection reset by peer");
+
+        // Then
+        assertThat(limitedRegistry.get("custom.stackdriver.http_client.errors").tag("error_type", "timeout")
+                .counter().count()).isEqualTo(1);
+        assertThat(limitedRegistry.get("custom.stackdriver.http_client.errors").tag("error_type", "OTHER")
+                .tag("client", "paysight").counter().count()).isEqualTo(1);
+        assertThat(limitedRegistry.get("custom.stackdriver.metrics.tag_limit_exceeded").tag("tag", "error_type")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.paymend.commons.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.context.CorrelationContext;
+
+import reactor.core.publisher.Mono;
+
+class CorrelationExchangeFilterTest {
+
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        CorrelationContext.clear();
+        RestTemplateConfigProperties.Correlation correlationConfig = new RestTemplateConfigProperties.Correlation();
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+                })
+                .filter(new CorrelationExchangeFilter(correlationConfig, (prefix, length) -> prefix + "GENERATED"))
+                .build();
+    }
+
+    @Test
+    void shouldUseRequestIdBoundByWebFilter() {
+        // Given
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/payments").header("request-id", "REQ-INCOMING"));
+
+        // When
+        new CorrelationWebFilter().filter(exchange, ignored -> call().then()).block();
+
+        // Then
+        assertThat(sent.get().headers().getFirst("request-id")).isEqualTo("REQ-INCOMING");
+    }
+
+    @Test
+    void shouldGenerateRequestIdWhenNoneIsBound() {
+        // When
+        call().block();
+
+        // Then
+        assertThat(sent.get().headers().getFirst("request-id")).isEqualTo("REQ-GENERATED");
+    }
+
+    @Test
+    void shouldExposeRequestIdToDownstreamFilters() {
+        // Given
+        AtomicReference<String> seen = new AtomicReference<>();
+        WebClient client = webClient.mutate()
+                .filter((request, next) -> ReactiveCorrelation.requestId()
+                        .doOnNext(seen::set)
+                        .then(next.exchange(request)))
+                .build();
+
+        // When
+        client.get().uri(URI.create("http://api.example.com/ping")).retrieve().toBodilessEntity()
+                .contextWrite(context -> ReactiveCorrelation.withRequestId(context, "REQ-BOUND"))
+                .block();
+
+        // Then
+        assertThat(seen.get()).isEqualTo("REQ-BOUND");
+        assertThat(sent.get().headers().getFirst("request-id")).isEqualTo("REQ-BOUND");
+    }
+
+    private Mono<?> call() {
+        return webClient.get().uri(URI.create("http://api.example.com/ping")).retrieve().toBodilessEntity();
+    }
+}
@@ -0,0 +1,100 @@
+package com.paymend.commons.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.metrics.PaymentMetrics;
+import com.paymend.commons.metrics.PaymentMetricsProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class MetricsExchangeFilterTest {
+
+    private static final URI PAYSIGHT = URI.create("https://api.paysight.com/v1/payments");
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private RestTemplateConfigProperties properties;
+    private SimpleMeterRegistry registry;
+    private ClientNameResolver clientNameResolver;
+    private PaymentMetrics paymentMetrics;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RestTemplateConfigProperties();
+        properties.setClientNames(Map.of("api.paysight.com", "paysight"));
+        properties.getRetry().setInitialInterval(Duration.ofMillis(1));
+        properties.getRetry().setMaxInterval(Duration.ofMillis(5));
+        registry = new SimpleMeterRegistry();
+        PaymentMetricsProperties metricsProperties = new PaymentMetricsProperties();
+        metricsProperties.setServiceName("checkout");
+        clientNameResolver = new ClientNameResolver(properties);
+        paymentMetrics = new PaymentMetrics(registry, metricsProperties);
+    }
+
+    @Test
+    void shouldRecordEachRetryAttemptWithItsAttemptNumber() {
+        // Given
+        WebClient webClient = webClient(request -> Mono.just(ClientResponse.create(
+                attempts.incrementAndGet() < 2 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).build()));
+
+        // When
+        webClient.get().uri(PAYSIGHT).retrieve().toBodilessEntity().block();
+
+        // Then
+        assertThat(registry.get("custom.stackdriver.http_client.requests").tag("service_name", "checkout")
+                .tag("client", "paysight").counter().count()).isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.http_client_response_time").tag("client", "paysight")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("service_name", "checkout")
+                .tag("status_class", "5xx").tag("attempt", "1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "2xx")
+                .tag("attempt", "2").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").tag("error_type", "server_error")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.in_flight").tag("service_name", "checkout")
+                .tag("client", "paysight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldCountConnectionFailuresAsIoErrors() {
+        // Given
+        WebClient webClient = webClient(request -> Mono.error(new WebClientRequestException(
+                new ConnectException("Connection refused"), HttpMethod.POST, PAYSIGHT, HttpHeaders.EMPTY)));
+
+        // When & Then
+        assertThatThrownBy(() -> webClient.post().uri(PAYSIGHT).retrieve().toBodilessEntity().block())
+                .isInstanceOf(WebClientRequestException.class);
+        assertThat(registry.get("custom.stackdriver.http_client.errors").tag("error_type", "io_error")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.responses").tag("status_class", "NONE")
+                .tag("attempt", "1").counter().count()).isEqualTo(1);
+        assertThat(registry.get("custom.stackdriver.http_client.in_flight").gauge().value()).isZero();
+    }
+
+    private WebClient webClient(ExchangeFunction exchangeFunction) {
+        return WebClient.builder()
+                .exchangeFunction(exchangeFunction)
+                .filter(new RetryExchangeFilter(clientNameResolver, properties.getRetry()))
+                .filter(new MetricsExchangeFilter(clientNameResolver, paymentMetrics))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.paymend.commons.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.paymend.commons.client.ClientNameResolver;
+import com.paymend.commons.config.RestTemplateConfigProperties;
+import com.paymend.commons.exception.RetryableHttpException;
+
+import reactor.core.publisher.Mono;
+
+class RetryExchangeFilterTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getRetry().setInitialInterval(Duration.ofMillis(1));
+        properties.getRetry().setMaxInterval(Duration.ofMillis(5));
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(
+                        attempts.incrementAndGet() < 3 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK).build()))
+                .filter(new RetryExchangeFilter(new ClientNameResolver(properties), properties.getRetry()))
+                .build();
+    }
+
+    @Test
+    void shouldRetryRetryableStatusForIdempotentMethod() {
+        // When
+        ResponseEntity<Void> response = webClient.get().uri(URI.create("http://api.example.com/payments"))
+                .retrieve().toBodilessEntity().block();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(attempts.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotRetryPost() {
+        // When & Then
+        assertThatThrownBy(() -> webClient.post().uri(URI.create("http://api.example.com/payments"))
+                .retrieve().toBodilessEntity().block())
+                .isInstanceOf(RetryableHttpException.class)
+                .hasMessageContaining("503");
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCreditRetryBudgetOnSubscriptionOnly() {
+        // Given
+        RestTemplateConfigProperties properties = new RestTemplateConfigProperties();
+        properties.getRetry().setInitialInterval(Duration.ofMillis(1));
+        properties.getRetry().getBudget().setPercent(50);
+        properties.getRetry().getBudget().setMaxTokens(1);
+        RetryExchangeFilter filter = new RetryExchangeFilter(new ClientNameResolver(properties), properties.getRetry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://api.example.com/payments"))
+                .build();
+        ExchangeFunction unavailable = req -> Mono.fromSupplier(() -> {
+            attempts.incrementAndGet();
+            return ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        assertThatThrownBy(() -> filter.filter(request, unavailable).block())
+                .isInstanceOf(RetryableHttpException.class);
+        attempts.set(0);
+
+        // When
+        filter.filter(request, unavailable);
+        filter.filter(request, unavailable);
+        assertThatThrownBy(() -> filter.filter(request, unavailable).block())
+                .isInstanceOf(RetryableHttpException.class);
+
+        // Then
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.paymend.commons.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = Duration.ofMillis(20).toNanos();
+
+    private RestTemplateConfigProperties.ConcurrencyLimit config;
+
+    @BeforeEach
+    void setUp() {
+        config = new RestTemplateConfigProperties.ConcurrencyLimit();
+        config.setInitialLimit(10);
+        config.setMinLimit(2);
+        config.setMaxLimit(50);
+    }
+
+    @Test
+    void shouldRejectCallsOverTheLimit() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        // Then
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.onSuccess(RTT);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsStableUnderLoad() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        // When
+        runSaturated(limiter, 200, RTT);
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        runSaturated(limiter, 200, RTT);
+
+        // When
+        runSaturated(limiter, 20, RTT * 4);
+
+        // Then
+        assertThat(limiter.getLimit()).isLessThan(20);
+    }
+
+    @Test
+    void shouldNotGrowWhenMostlyIdle() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(RTT);
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldBackOffOnDroppedCalls() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        // Then
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldWaitForReleasedSlot() throws InterruptedException {
+        // Given
+        config.setInitialLimit(2);
+        config.setMaxWaitDuration(Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // When
+        Thread.ofVirtual().start(() -> {
+            sleep(50);
+            limiter.onSuccess(RTT);
+        });
+        long start = System.nanoTime();
+        boolean acquired = limiter.tryAcquire();
+
+        // Then
+        assertThat(acquired).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Keeps the limiter full, completing one call at a time with the given RTT.
+     */
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, int completions, long rttNanos) {
+        for (int i = 0; i < completions; i++) {
+            while (limiter.tryAcquire()) {
+                // fill every available slot
+            }
+            limiter.onSuccess(rttNanos);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.paymend.commons.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.paymend.commons.config.RestTemplateConfigProperties;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(10).toNanos();
+
+    private RestTemplateConfigProperties.CircuitBreaker config;
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        config = new RestTemplateConfigProperties.CircuitBreaker();
+        config.setSlidingWindowSize(10);
+        config.setMinimumNumberOfCalls(4);
+        config.setPermittedCallsInHalfOpenState(2);
+        config.setWaitDurationInOpenState(Duration.ofMillis(20));
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumNumberOfCalls() {
+        // Given
+        CircuitBreaker circuitBreaker = new CircuitBreaker("paysight", config, clock::get);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onError(FAST);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        // Given
+        CircuitBreaker circuitBreaker = new CircuitBreaker("paysight", config, clock::get);
+
+        // When
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onError(FAST);
+        circuitBreaker.onError(FAST);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void shouldStayOpenUntilWaitDurationHasElapsed() {
+        // Given
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+
+        // When
+        clock.addAndGet(Duration.ofMillis(19).toNanos());
+
+        // Then
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        clock.addAndGet(Duration.ofMillis(1).toNanos());
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void shouldOpenWhenSlowCallRateReachesThreshold() {
+        // Given
+        CircuitBreaker circuitBreaker = new CircuitBreaker("evervault", config, clock::get);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(SLOW);
+        }
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulHalfOpenProbes() {
+        // Given
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        clock.addAndGet(Duration.ofMillis(30).toNanos());
+
+        // When
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+        assertThat(circuitBreaker.tryAcquirePermission()).isFalse();
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void shouldReopenWhenHalfOpenProbeFails() {
+        // Given
+        CircuitBreaker circuitBreaker = openCircuitBreaker();
+        clock.addAndGet(Duration.ofMillis(30).toNanos());
+
+        // When
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onError(FAST);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private CircuitBreaker openCircuitBreaker() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("paysight", config, clock::get);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onError(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return circuitBreaker;
+    }
+}
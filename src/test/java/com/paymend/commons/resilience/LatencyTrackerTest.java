@@ -0,0 +1,51 @@
+package com.paymend.commons.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyTrackerTest {
+
+    @Test
+    void shouldReturnNoEstimateBelowMinimumSamples() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(Duration.ofMinutes(1), 10);
+
+        // When
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(20));
+
+        // Then
+        assertThat(tracker.percentile(0.95)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldEstimatePercentileWithinBucketPrecision() {
+        // Given
+        LatencyTracker tracker = new LatencyTracker(Duration.ofMinutes(1), 10);
+
+        // When
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // Then
+        long p95 = TimeUnit.NANOSECONDS.toMillis(tracker.percentile(0.95));
+        assertThat(p95).isBetween(95L, 107L);
+    }
+
+    @Test
+    void shouldMapBucketsMonotonically() {
+        // When & Then
+        long previousUpperBound = 0;
+        for (long micros = 0; micros < 1_000_000; micros += 37) {
+            int index = LatencyTracker.bucketIndex(micros);
+            long upperBound = LatencyTracker.bucketUpperBound(index);
+            assertThat(upperBound).isGreaterThan(micros);
+            assertThat(upperBound).isGreaterThanOrEqualTo(previousUpperBound);
+            previousUpperBound = upperBound;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.paymend.commons.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class RequestBudgetTest {
+
+    @Test
+    void shouldStartWithFullBucket() {
+        // Given
+        RequestBudget budget = new RequestBudget(10.0, 3);
+
+        // When & Then
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldCapExtraRequestsAtPercentageOfTraffic() {
+        // Given
+        RequestBudget budget = new RequestBudget(10.0, 1);
+        budget.tryAcquire();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+
+        // Then
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldNotExceedMaxTokens() {
+        // Given
+        RequestBudget budget = new RequestBudget(50.0, 2);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            budget.recordRequest();
+        }
+
+        // Then
+        assertThat(budget.getAvailableTokens()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        // When & Then
+        assertThatThrownBy(() -> new RequestBudget(-1, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RequestBudget(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}